@@ -0,0 +1,70 @@
+package study.datajpa.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 감사 필드가 붙은 insert 100만 건 (4 스레드 x 25만 건, 1000 건마다 커밋)
+ * BATCHED : flush 단위로 시각/등록자를 한 번만 구한다. PER_CALL : 엔티티마다 구한다.
+ * ./gradlew jmh -PjmhIncludes=AuditingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class AuditingBenchmark {
+
+    private static final int PER_THREAD = 250_000;
+    private static final int BATCH = 1000;
+
+    @Param({"BATCHED", "PER_CALL"})
+    String mode;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transaction;
+    private EntityManager em;
+    private MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "spring.datasource.url=jdbc:h2:mem:bench-auditing;DB_CLOSE_DELAY=-1",
+                "datajpa.seed.mode=none",
+                "datajpa.username-cache.enabled=false",
+                "datajpa.auditing.mode=" + mode);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        em = context.getBean(EntityManager.class);
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clear() {
+        memberRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int insert() {
+        for (int done = 0; done < PER_THREAD; done += BATCH) {
+            transaction.executeWithoutResult(status -> {
+                for (int i = 0; i < BATCH; i++) {
+                    em.persist(Member.builder().username("audit").age(i).build());
+                }
+            });
+        }
+        return PER_THREAD;
+    }
+}
@@ -0,0 +1,83 @@
+package study.datajpa.bench;
+
+import org.hibernate.engine.spi.ManagedEntity;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * loaded 건을 영속성 컨텍스트에 올리고 modified 건만 바꾼 뒤 flush 하는 비용
+ * 바이트코드 향상 유무는 빌드로 정해지므로 두 번 실행해서 비교한다.
+ * ./gradlew jmh -PjmhIncludes=FlushBenchmark
+ * ./gradlew jmh -PjmhIncludes=FlushBenchmark -PnoEnhance
+ * gc.alloc.rate.norm 으로 flush 한 번의 할당량을 본다.
+ * 빌드가 기대와 다르면(예 : 향상 없이 컴파일된 클래스가 남아 있음) 측정하지 않고 바로 실패한다. (jmh jvmArgs 의 bench.enhanced)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FlushBenchmark {
+
+    @Param({"10000"})
+    int loaded;
+
+    @Param({"10"})
+    int modified;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory emf;
+    private EntityManager em;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean expected = Boolean.parseBoolean(System.getProperty("bench.enhanced", "true"));
+        boolean enhanced = ManagedEntity.class.isAssignableFrom(Member.class);
+        if (enhanced != expected) {
+            throw new IllegalStateException("Member 바이트코드 향상 여부가 빌드 설정과 다릅니다. expected=" + expected + ", actual=" + enhanced);
+        }
+
+        context = BenchmarkApplication.start("datajpa.seed.mode=none");
+        emf = context.getBean(EntityManagerFactory.class);
+
+        List<Member> members = new ArrayList<>(loaded);
+        for (int i = 0; i < loaded; i++) {
+            members.add(Member.builder().username("flush" + i).age(i % 100).build());
+        }
+        context.getBean(MemberRepository.class).saveAllBatched(members);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // flush 만 재기 위해 조회와 수정은 매 호출 전에 따로 한다
+    @Setup(Level.Invocation)
+    public void load() {
+        em = emf.createEntityManager();
+        em.getTransaction().begin();
+        List<Member> members = em.createQuery("select m from Member m", Member.class).getResultList();
+        for (int i = 0; i < modified; i++) {
+            Member member = members.get(i * (members.size() / modified));
+            member.changeName(member.getUsername() + "'");
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() {
+        em.getTransaction().rollback();
+        em.close();
+    }
+
+    @Benchmark
+    public void flush() {
+        em.flush();
+    }
+}
@@ -0,0 +1,76 @@
+package study.datajpa.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 100 만 건 insert : JDBC 배치 사용 vs 미사용
+ * ./gradlew jmh -PjmhIncludes=MemberBatchInsertBenchmark
+ *
+ * jdbcBatchSize 는 hibernate.jdbc.batch_size 로 넘긴다. 0 이면 배치를 쓰지 않고 insert 마다 한 번씩 실행한다.
+ * flush, clear 주기(datajpa.batch-insert.flush-interval)는 100 으로 고정해서 배치 여부만 달라지게 한다.
+ * 인메모리 H2 라 네트워크 왕복이 없어서 실제 DB 보다 차이가 작게 나온다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class MemberBatchInsertBenchmark {
+
+    private static final int MEMBERS = 1_000_000;
+
+    @Param({"0", "100"})
+    String jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "datajpa.seed.mode=none",
+                "datajpa.username-cache.enabled=false",
+                "datajpa.batch-insert.flush-interval=100",
+                "spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize);
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clear() {
+        memberRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long insert() {
+        return memberRepository.saveAllBatched(members());
+    }
+
+    // 100 만 건을 한 번에 만들어 두지 않고 꺼낼 때마다 만든다
+    private static Iterable<Member> members() {
+        return () -> new Iterator<>() {
+            private int i;
+
+            @Override
+            public boolean hasNext() {
+                return i < MEMBERS;
+            }
+
+            @Override
+            public Member next() {
+                i++;
+                return Member.builder().username("member" + i).age(i % 100).build();
+            }
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package study.datajpa.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberReadPath;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemberDto 조회 : JPQL new 연산자 vs JDBC RowMapper
+ * ./gradlew jmh -PjmhIncludes=MemberDtoReadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberDtoReadBenchmark {
+
+    @Param({"JPQL", "JDBC"})
+    MemberReadPath path;
+
+    @Param({"10000"})
+    int members;
+
+    @Param({"20"})
+    int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("datajpa.seed.mode=none");
+        memberRepository = context.getBean(MemberRepository.class);
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+
+        List<Team> teams = new ArrayList<>();
+        for (int t = 0; t < 100; t++) {
+            teams.add(teamRepository.save(Team.builder().name("team" + t).build()));
+        }
+        List<Member> list = new ArrayList<>(members);
+        for (int i = 0; i < members; i++) {
+            list.add(Member.builder().username("member" + i).age(i % 100).team(teams.get(i % teams.size())).build());
+        }
+        memberRepository.saveAllBatched(list);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberDto> list() {
+        return memberRepository.findMemberDto(path);
+    }
+
+    @Benchmark
+    public Page<MemberDto> page() {
+        int page = ThreadLocalRandom.current().nextInt(members / pageSize);
+        return memberRepository.findMemberDtoPage(PageRequest.of(page, pageSize, Sort.by("id")), path);
+    }
+}
@@ -0,0 +1,133 @@
+package study.datajpa.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.ImportResult;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.service.MemberImportService;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 파일 10만 건 가져오기 (팀 100 개)
+ * - pipeline : MemberImportService (파싱 스레드 + StatelessSession 배치 insert)
+ * - persist : 한 스레드에서 읽고 MemberJpaRepository.save, 1000 건마다 커밋
+ * 결과 로그의 rows/s 와 gc.alloc.rate.norm 을 같이 본다.
+ * ./gradlew jmh -PjmhIncludes=MemberImportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class MemberImportBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int TEAMS = 100;
+    private static final int CHUNK = 1000;
+
+    private ConfigurableApplicationContext context;
+    private MemberImportService memberImportService;
+    private MemberJpaRepository memberJpaRepository;
+    private MemberRepository memberRepository;
+    private TeamRepository teamRepository;
+    private TransactionTemplate transaction;
+    private EntityManager em;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkApplication.start(
+                "datajpa.seed.mode=none",
+                "datajpa.username-cache.enabled=false",
+                "datajpa.import.chunk-size=" + CHUNK);
+        memberImportService = context.getBean(MemberImportService.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        memberRepository = context.getBean(MemberRepository.class);
+        teamRepository = context.getBean(TeamRepository.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        em = context.getBean(EntityManager.class);
+
+        file = Files.createTempFile("members", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("username,age,teamName\n");
+            for (int i = 0; i < ROWS; i++) {
+                writer.write("member" + i + "," + (i % 100) + ",team" + (i % TEAMS) + "\n");
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void clear() {
+        memberRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long pipeline() {
+        ImportResult result = memberImportService.importMembers(file, "bench-" + UUID.randomUUID());
+        return result.getRows();
+    }
+
+    @Benchmark
+    public long persist() throws Exception {
+        Map<String, Team> teams = new HashMap<>();
+        long rows = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            reader.readLine();
+            List<String> lines = new ArrayList<>(CHUNK);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+                if (lines.size() == CHUNK) {
+                    rows += save(lines, teams);
+                    lines.clear();
+                }
+            }
+            rows += save(lines, teams);
+        }
+        return rows;
+    }
+
+    private int save(List<String> lines, Map<String, Team> teams) {
+        transaction.executeWithoutResult(status -> {
+            for (String line : lines) {
+                String[] columns = line.split(",", -1);
+                Team team = teams.computeIfAbsent(columns[2], name -> {
+                    Team created = Team.builder().name(name).build();
+                    em.persist(created);
+                    return created;
+                });
+                memberJpaRepository.save(Member.builder()
+                        .username(columns[0])
+                        .age(Integer.parseInt(columns[1]))
+                        .team(team)
+                        .build());
+            }
+        });
+        return lines.size();
+    }
+}
@@ -0,0 +1,73 @@
+package study.datajpa.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * username in (...) 조회
+ * - singleIn : 목록 전체를 in 절 하나로 (이전 findByNames)
+ * - chunked : 트랜잭션 안에서 chunk 순서대로
+ * - parallel : 트랜잭션 밖에서 chunk 병렬
+ * ./gradlew jmh -PjmhIncludes=MemberInListBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MemberInListBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int names;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private EntityManager em;
+    private TransactionTemplate readOnly;
+    private final List<String> usernames = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("datajpa.seed.mode=none", "datajpa.username-cache.enabled=false");
+        memberRepository = context.getBean(MemberRepository.class);
+        em = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        List<Member> members = new ArrayList<>(names);
+        for (int i = 0; i < names; i++) {
+            usernames.add("name" + i);
+            members.add(Member.builder().username("name" + i).age(i % 100).build());
+        }
+        memberRepository.saveAllBatched(members);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Member> singleIn() {
+        return readOnly.execute(status -> em.createQuery("select m from Member m where m.username in :names", Member.class)
+                .setParameter("names", usernames)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<Member> chunked() {
+        return readOnly.execute(status -> memberRepository.findByNames(usernames));
+    }
+
+    @Benchmark
+    public List<Member> parallel() {
+        return memberRepository.findByNames(usernames);
+    }
+}
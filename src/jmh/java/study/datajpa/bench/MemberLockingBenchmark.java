@@ -0,0 +1,77 @@
+package study.datajpa.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.service.OptimisticUpdater;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 소수의 행(hotRows)에 여러 스레드가 동시에 수정할 때 비관적 락 vs 낙관적 락 + 재시도
+ * SampleTime 결과의 p0.99, p0.999 로 꼬리 지연을 비교한다.
+ * ./gradlew jmh -PjmhIncludes=MemberLockingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class MemberLockingBenchmark {
+
+    @Param({"1", "8", "64"})
+    int hotRows;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transaction;
+    private EntityManager em;
+    private OptimisticUpdater optimisticUpdater;
+    private final List<Long> ids = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 락 대기가 H2 기본 타임아웃(1초)을 넘을 수 있고, 재시도를 포기하면 측정이 깨지므로 넉넉하게 준다
+        context = BenchmarkApplication.start(
+                "spring.datasource.url=jdbc:h2:mem:bench-locking;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                "datajpa.optimistic.max-attempts=1000");
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        em = context.getBean(EntityManager.class);
+        optimisticUpdater = context.getBean(OptimisticUpdater.class);
+
+        MemberRepository memberRepository = context.getBean(MemberRepository.class);
+        for (int i = 0; i < hotRows; i++) {
+            ids.add(memberRepository.save(Member.builder().username("hot" + i).age(0).build()).getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private Long randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    @Benchmark
+    public Member pessimistic() {
+        Long id = randomId();
+        return transaction.execute(status -> {
+            Member member = em.find(Member.class, id, LockModeType.PESSIMISTIC_WRITE);
+            member.changeName("hot-" + System.nanoTime());
+            return member;
+        });
+    }
+
+    @Benchmark
+    public Member optimistic() {
+        return optimisticUpdater.updateMember(randomId(), member -> member.changeName("hot-" + System.nanoTime()));
+    }
+}
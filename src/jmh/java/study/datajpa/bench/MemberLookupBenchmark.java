@@ -0,0 +1,62 @@
+package study.datajpa.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.service.MemberBatchLoader;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /members/{id} 조회 경로 : 초당 처리량과 호출당 할당량(gc.alloc.rate.norm)
+ * - batchLoader : 이전 경로 (엔티티 묶음 조회)
+ * - entity : findById 후 getUsername
+ * - scalar : findUsernameById (현재 경로)
+ * ./gradlew jmh -PjmhIncludes=MemberLookupBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class MemberLookupBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private MemberBatchLoader memberBatchLoader;
+    private long minId;
+    private long maxId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();     // 기본 seed 100 명
+        memberRepository = context.getBean(MemberRepository.class);
+        memberBatchLoader = context.getBean(MemberBatchLoader.class);
+        minId = memberRepository.findMinId();
+        maxId = memberRepository.findMaxId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(minId, maxId + 1);
+    }
+
+    @Benchmark
+    public String batchLoader() {
+        return memberBatchLoader.load(randomId()).join().get().getUsername();
+    }
+
+    @Benchmark
+    public String entity() {
+        return memberRepository.findById(randomId()).get().getUsername();
+    }
+
+    @Benchmark
+    public String scalar() {
+        return memberRepository.findUsernameById(randomId()).get();
+    }
+}
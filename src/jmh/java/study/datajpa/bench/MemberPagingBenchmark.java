@@ -0,0 +1,77 @@
+package study.datajpa.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * offset 페이징 vs 키셋(커서) 페이징
+ * ./gradlew jmh -PjmhIncludes=MemberPagingBenchmark
+ *
+ * 회원 1,000,010 명을 username 순으로 10 개씩 읽을 때 page 번째 페이지 하나를 읽는 시간.
+ * offset 은 앞 페이지를 모두 건너뛰어야 해서 page 에 비례해 느려지고, 키셋은 page 와 상관없이 인덱스에서 바로 찾는다.
+ * 키셋 커서는 앞 페이지 마지막 행(member_id = (page - 1) x 10)으로 미리 만들어 둔다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberPagingBenchmark {
+
+    private static final int MEMBERS = 1_000_010;
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"1", "1000", "100000"})
+    int page;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private String cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("datajpa.seed.mode=none", "datajpa.username-cache.enabled=false");
+        memberRepository = context.getBean(MemberRepository.class);
+
+        // username 은 0 을 채워서 username 순서와 member_id 순서가 같게 만든다
+        context.getBean(JdbcTemplate.class).update(
+                "insert into member (member_id, username, age, version, created_date, last_modified_date)" +
+                        " select x, 'member' || lpad(x, 7, '0'), mod(x, 100), 0, now(), now() from system_range(1, ?)",
+                MEMBERS);
+
+        long last = (long) (page - 1) * PAGE_SIZE;
+        cursor = last == 0 ? null : encode(String.format("member%07d", last)) + "." + encode(String.valueOf(last));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void offset(Blackhole bh) {
+        for (Member member : memberRepository.findSliceBy(PageRequest.of(page - 1, PAGE_SIZE, Sort.by("username")))) {
+            bh.consume(member.getUsername());
+        }
+    }
+
+    @Benchmark
+    public void keyset(Blackhole bh) {
+        for (Member member : memberRepository.findAllByCursor(cursor, PageRequest.of(0, PAGE_SIZE, Sort.by("username"))).getContent()) {
+            bh.consume(member.getUsername());
+        }
+    }
+
+    // MemberKeyset 커서 형식 : 정렬 키 값마다 base64url, '.' 으로 연결
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,81 @@
+package study.datajpa.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import study.datajpa.cache.MemberTableVersion;
+import study.datajpa.repository.MemberReadPath;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 페이지를 계속 다시 가져가는 클라이언트 (GET /members 반복 폴링)
+ * - always : 매번 조회 + JSON 직렬화 (이전 동작)
+ * - conditional : ETag 가 같으면 304 (조회, 직렬화 없음)
+ * changePercent : 폴링 사이에 회원이 바뀌는 비율. 변경은 버전만 올려서 흉내 낸다.
+ * ./gradlew jmh -PjmhIncludes=MemberPollingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class MemberPollingBenchmark {
+
+    @Param({"0", "10", "100"})
+    int changePercent;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private MemberTableVersion memberTableVersion;
+    private ObjectMapper objectMapper;
+    private final Pageable pageable = PageRequest.of(0, 20);
+
+    @State(Scope.Thread)
+    public static class Client {
+        String etag;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();     // 기본 seed 100 명
+        memberRepository = context.getBean(MemberRepository.class);
+        memberTableVersion = context.getBean(MemberTableVersion.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private void maybeChange() {
+        if (ThreadLocalRandom.current().nextInt(100) < changePercent) {
+            memberTableVersion.bump();
+        }
+    }
+
+    private byte[] render() throws Exception {
+        return objectMapper.writeValueAsBytes(memberRepository.findMemberDtoPage(pageable, MemberReadPath.JDBC));
+    }
+
+    @Benchmark
+    public int always() throws Exception {
+        maybeChange();
+        return render().length;
+    }
+
+    @Benchmark
+    public int conditional(Client client) throws Exception {
+        maybeChange();
+        String etag = memberTableVersion.etag();
+        if (etag.equals(client.etag)) {
+            return 0;   // 304
+        }
+        client.etag = etag;
+        return render().length;
+    }
+}
@@ -0,0 +1,132 @@
+package study.datajpa.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.sql.SqlCount;
+import study.datajpa.sql.SqlStatementCounter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 회원 + 팀 조회 방식 비교
+ * ./gradlew jmh -PjmhIncludes=MemberReadStrategyBenchmark
+ *
+ * members : 전체 회원 수, membersPerTeam : 팀 하나당 회원 수 (팀 수 = members / membersPerTeam)
+ * sqlStatements 보조 지표로 호출 한 번에 나간 SQL 수를 함께 본다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MemberReadStrategyBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int members;
+
+    @Param({"1", "10", "100"})
+    int membersPerTeam;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private SqlStatementCounter sqlStatementCounter;
+    private TransactionTemplate readOnly;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class SqlStatements {
+        public long sqlStatements;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        sqlStatementCounter = context.getBean(SqlStatementCounter.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        memberRepository.deleteAllInBatch();
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, members / membersPerTeam); i++) {
+            teams.add(Team.builder().name("team" + i).build());
+        }
+        teamRepository.saveAll(teams);
+
+        List<Member> all = new ArrayList<>();
+        for (int i = 0; i < members; i++) {
+            all.add(Member.builder().username("member" + i).age(i % 100).team(teams.get(i % teams.size())).build());
+        }
+        memberRepository.saveAllBatched(all);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void fetchJoin(SqlStatements counters, Blackhole bh) {
+        read(counters, bh, memberRepository::findMemberFetchJoin);
+    }
+
+    @Benchmark
+    public void entityGraphFindAll(SqlStatements counters, Blackhole bh) {
+        read(counters, bh, memberRepository::findAll);
+    }
+
+    @Benchmark
+    public void entityGraphQuery(SqlStatements counters, Blackhole bh) {
+        read(counters, bh, memberRepository::findByMembersEntityGraph);
+    }
+
+    @Benchmark
+    public void lazyLoading(SqlStatements counters, Blackhole bh) {
+        read(counters, bh, memberRepository::findMemberCustom);
+    }
+
+    @Benchmark
+    public void dtoProjection(SqlStatements counters, Blackhole bh) {
+        SqlCount count = sqlStatementCounter.start();
+        try {
+            readOnly.executeWithoutResult(status -> {
+                for (MemberDto dto : memberRepository.findMemberDto()) {
+                    bh.consume(dto.getTeamName());
+                }
+            });
+        } finally {
+            sqlStatementCounter.stop();
+        }
+        counters.sqlStatements += count.getTotal();
+    }
+
+    // 단건 조회 : @NamedEntityGraph("Member.all")
+    @Benchmark
+    public void namedEntityGraphSingle(SqlStatements counters, Blackhole bh) {
+        read(counters, bh, () -> List.of(memberRepository.findNamedEntityGraphByUsername("member0")));
+    }
+
+    private void read(SqlStatements counters, Blackhole bh, Supplier<List<Member>> query) {
+        SqlCount count = sqlStatementCounter.start();
+        try {
+            readOnly.executeWithoutResult(status -> {
+                for (Member member : query.get()) {
+                    bh.consume(member.getTeam().getName());
+                }
+            });
+        } finally {
+            sqlStatementCounter.stop();
+        }
+        counters.sqlStatements += count.getTotal();
+    }
+}
@@ -0,0 +1,73 @@
+package study.datajpa.bench;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import study.datajpa.metrics.RepositoryMetrics;
+import study.datajpa.metrics.RepositoryMetricsInterceptor;
+import study.datajpa.sql.SqlStatementCounter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RepositoryMetricsInterceptor 자체의 비용
+ * ./gradlew jmh -PjmhIncludes=RepositoryMetricsBenchmark
+ *
+ * DB 없이 같은 프록시 구조에서 인터셉터 내용만 비교한다.
+ * plain 은 바로 proceed 하는 인터셉터를 건 프록시라서, 인터셉터 체인(MethodInvocation) 비용은 양쪽에 똑같이 들어간다.
+ * gc.alloc.rate.norm 이 plain 과 같으면 RepositoryMetricsInterceptor 가 호출 경로에서 할당하지 않는 것이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RepositoryMetricsBenchmark {
+
+    public interface Finder {
+        List<String> findAll();
+    }
+
+    public static class InMemoryFinder implements Finder {
+        private final List<String> rows = List.of("member1", "member2", "member3");
+
+        @Override
+        public List<String> findAll() {
+            return rows;
+        }
+    }
+
+    private Finder plain;
+    private Finder instrumented;
+
+    @Setup
+    public void setUp() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("repositoryMetrics", new RepositoryMetrics(new SimpleMeterRegistry()));
+        beanFactory.registerSingleton("sqlStatementCounter",
+                new SqlStatementCounter(50, 5, SqlStatementCounter.Mode.LOG));
+
+        plain = proxy(invocation -> invocation.proceed());
+        instrumented = proxy(new RepositoryMetricsInterceptor(
+                beanFactory.getBeanProvider(RepositoryMetrics.class),
+                beanFactory.getBeanProvider(SqlStatementCounter.class)));
+    }
+
+    private static Finder proxy(MethodInterceptor interceptor) {
+        ProxyFactory factory = new ProxyFactory(new InMemoryFinder());
+        factory.addInterface(Finder.class);
+        factory.addAdvice(interceptor);
+        return (Finder) factory.getProxy();
+    }
+
+    @Benchmark
+    public List<String> plain() {
+        return plain.findAll();
+    }
+
+    @Benchmark
+    public List<String> instrumented() {
+        return instrumented.findAll();
+    }
+}
@@ -0,0 +1,94 @@
+package study.datajpa.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.TeamRosterDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamJpaRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 팀 명단 조회 : 두 쿼리 방식(findRoster) vs 배치 페치(findPage + members)
+ * ./gradlew jmh -PjmhIncludes=TeamRosterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TeamRosterBenchmark {
+
+    @Param({"1000", "10000"})
+    int teams;
+
+    @Param({"100"})
+    int membersPerTeam;
+
+    @Param({"20"})
+    int pageSize;
+
+    @Param({"10"})
+    int memberLimit;
+
+    private ConfigurableApplicationContext context;
+    private TeamRepository teamRepository;
+    private TeamJpaRepository teamJpaRepository;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        teamRepository = context.getBean(TeamRepository.class);
+        teamJpaRepository = context.getBean(TeamJpaRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        MemberRepository memberRepository = context.getBean(MemberRepository.class);
+        memberRepository.deleteAllInBatch();
+        for (int t = 0; t < teams; t++) {
+            Team team = teamRepository.save(Team.builder().name("team" + t).build());
+            List<Member> members = new ArrayList<>(membersPerTeam);
+            for (int m = 0; m < membersPerTeam; m++) {
+                members.add(Member.builder().username("member" + t + "-" + m).age(m).team(team).build());
+            }
+            memberRepository.saveAllBatched(members);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private int randomPage() {
+        return ThreadLocalRandom.current().nextInt(teams / pageSize);
+    }
+
+    @Benchmark
+    public void twoQueryRoster(Blackhole bh) {
+        List<TeamRosterDto> content = readOnly.execute(status -> teamRepository
+                .findRoster(PageRequest.of(randomPage(), pageSize, Sort.by("id")), memberLimit)
+                .getContent());
+        bh.consume(content);
+    }
+
+    @Benchmark
+    public void batchFetchRoster(Blackhole bh) {
+        readOnly.executeWithoutResult(status -> {
+            for (Team team : teamJpaRepository.findPage(randomPage() * pageSize, pageSize)) {
+                // 컬렉션 전체가 초기화된 뒤 앞에서 자른다
+                team.getMembers().stream().limit(memberLimit).forEach(member -> bh.consume(member.getUsername()));
+            }
+        });
+    }
+}
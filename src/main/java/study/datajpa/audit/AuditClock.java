@@ -0,0 +1,68 @@
+package study.datajpa.audit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.Optional;
+
+/**
+ * 감사(auditing) 시각. @CreatedDate, @LastModifiedDate, JpaBaseEntity 가 사용한다.
+ * BATCHED 모드에서는 스레드(= 세션)마다 한 번 읽은 시각을 AuditFlushInterceptor 가 flush 전후, 트랜잭션 종료 때 비울 때까지 재사용한다.
+ * 같은 flush 로 나가는 엔티티는 같은 시각을 갖는다. flush 없이 오래 머무르지 않도록 max-skew 가 지나면 다시 읽는다.
+ * java.time.Clock 빈이 있으면 그걸 쓴다. (테스트에서 고정 시각)
+ */
+@Component("auditClock")
+public class AuditClock implements DateTimeProvider {
+
+    private final Clock clock;
+    private final AuditingMode mode;
+    private final long maxSkewNanos;
+    private final ThreadLocal<Stamp> current = new ThreadLocal<>();
+
+    public AuditClock(ObjectProvider<Clock> clock,
+                      @Value("${datajpa.auditing.mode:batched}") AuditingMode mode,
+                      @Value("${datajpa.auditing.max-skew:100ms}") Duration maxSkew) {
+        this.clock = clock.getIfAvailable(Clock::systemDefaultZone);
+        this.mode = mode;
+        this.maxSkewNanos = maxSkew.toNanos();
+    }
+
+    public LocalDateTime now() {
+        if (mode == AuditingMode.PER_CALL) {
+            return LocalDateTime.now(clock);
+        }
+        long nanos = System.nanoTime();
+        Stamp stamp = current.get();
+        if (stamp == null || nanos - stamp.takenAt > maxSkewNanos) {
+            stamp = new Stamp(LocalDateTime.now(clock), nanos);
+            current.set(stamp);
+        }
+        return stamp.time;
+    }
+
+    @Override
+    public Optional<TemporalAccessor> getNow() {
+        return Optional.of(now());
+    }
+
+    // 다음 now() 는 새 시각을 읽는다
+    public void nextBatch() {
+        current.remove();
+    }
+
+    private static class Stamp {
+        private final LocalDateTime time;
+        private final long takenAt;
+
+        private Stamp(LocalDateTime time, long takenAt) {
+            this.time = time;
+            this.takenAt = takenAt;
+        }
+    }
+}
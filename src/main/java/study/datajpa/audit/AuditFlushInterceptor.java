@@ -0,0 +1,31 @@
+package study.datajpa.audit;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.Transaction;
+
+import java.util.Iterator;
+
+// flush 묶음이 바뀔 때마다 AuditClock 시각을 비운다. (HibernateConfig 에서 등록)
+public class AuditFlushInterceptor extends EmptyInterceptor {
+
+    private final AuditClock auditClock;
+
+    public AuditFlushInterceptor(AuditClock auditClock) {
+        this.auditClock = auditClock;
+    }
+
+    @Override
+    public void preFlush(Iterator entities) {
+        auditClock.nextBatch();
+    }
+
+    @Override
+    public void postFlush(Iterator entities) {
+        auditClock.nextBatch();
+    }
+
+    @Override
+    public void afterTransactionCompletion(Transaction tx) {
+        auditClock.nextBatch();
+    }
+}
@@ -0,0 +1,7 @@
+package study.datajpa.audit;
+
+// datajpa.auditing.mode
+public enum AuditingMode {
+    BATCHED,    // 등록자는 요청/트랜잭션마다 한 번, 시각은 flush 묶음마다 한 번
+    PER_CALL    // 엔티티마다 새로 (이전 방식)
+}
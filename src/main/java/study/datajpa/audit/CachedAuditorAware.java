@@ -0,0 +1,70 @@
+package study.datajpa.audit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 등록자/수정자 (로그인이 없으므로 요청마다 임의의 UUID)
+ * BATCHED 모드에서는 HTTP 요청 또는 트랜잭션마다 한 번만 만들어서 그 안의 모든 엔티티가 같은 값을 쓴다.
+ * UUID.randomUUID() 는 SecureRandom 을 써서 동시 insert 때 경합하므로 ThreadLocalRandom 으로 만든다. (보안 용도 아님)
+ * 컬럼에는 36자 문자열 대신 16바이트로 저장한다. (BaseEntity)
+ */
+@Component
+public class CachedAuditorAware implements AuditorAware<UUID> {
+
+    private static final String ATTRIBUTE = CachedAuditorAware.class.getName();
+
+    private final AuditingMode mode;
+
+    public CachedAuditorAware(@Value("${datajpa.auditing.mode:batched}") AuditingMode mode) {
+        this.mode = mode;
+    }
+
+    @Override
+    public Optional<UUID> getCurrentAuditor() {
+        if (mode == AuditingMode.PER_CALL) {
+            return Optional.of(UUID.randomUUID());
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            UUID auditor = (UUID) request.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (auditor == null) {
+                auditor = randomUuid();
+                request.setAttribute(ATTRIBUTE, auditor, RequestAttributes.SCOPE_REQUEST);
+            }
+            return Optional.of(auditor);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            UUID auditor = (UUID) TransactionSynchronizationManager.getResource(ATTRIBUTE);
+            if (auditor == null) {
+                auditor = randomUuid();
+                TransactionSynchronizationManager.bindResource(ATTRIBUTE, auditor);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(ATTRIBUTE);
+                    }
+                });
+            }
+            return Optional.of(auditor);
+        }
+        return Optional.of(randomUuid());
+    }
+
+    // version 4 UUID 형식
+    static UUID randomUuid() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
@@ -0,0 +1,97 @@
+package study.datajpa.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.event.MemberChangedEvent;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 페이징 total count 캐시.
+ * 큰 테이블에서는 count 쿼리가 페이지 조회보다 비싸므로 짧은 TTL 동안 재사용한다.
+ * 키는 "쿼리 이름:파라미터" 형태로 호출하는 쪽에서 만든다.
+ *
+ * Member 를 바꾼 트랜잭션 안에서는 캐시를 거치지 않는다.
+ * 그 트랜잭션의 count 는 커밋 전 행까지 세므로 담으면 안 되고, 캐시에 있는 값은 그 트랜잭션이 보는 값과 다르다.
+ */
+@Component
+public class CountCache {
+
+    private final ConcurrentMap<String, Total> totals = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final long ttlNanos;
+
+    public CountCache(@Value("${datajpa.count-cache.ttl:5s}") Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public long get(String key, LongSupplier counter) {
+        if (isChangedInTransaction()) {
+            return counter.getAsLong();
+        }
+        long now = System.nanoTime();
+        Total total = totals.get(key);
+        if (total != null && now - total.loadedAt < ttlNanos) {
+            return total.value;
+        }
+
+        long started = generation.get();
+        long value = counter.getAsLong();
+        // count 하는 사이에 무효화 되었다면 이전 값일 수 있으니 담지 않는다
+        if (generation.get() == started) {
+            totals.put(key, new Total(value, now));
+        }
+        return value;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        totals.clear();
+    }
+
+    // 현재 트랜잭션에서 Member 가 바뀌었는지 (flush 된 변경 기준)
+    public boolean isChangedInTransaction() {
+        return TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.getSynchronizations().stream()
+                .anyMatch(synchronization -> synchronization instanceof Changes && ((Changes) synchronization).owner() == this);
+    }
+
+    // flush 시점에 한 번, 트랜잭션 종료(커밋, 롤백) 후에 한 번 더 지운다.
+    // 커밋 전에 다른 트랜잭션이 이전 값을 다시 담았을 수 있기 때문
+    @EventListener
+    public void onMemberChanged(MemberChangedEvent event) {
+        invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive() && !isChangedInTransaction()) {
+            TransactionSynchronizationManager.registerSynchronization(new Changes());
+        }
+    }
+
+    private class Changes implements TransactionSynchronization {
+
+        private CountCache owner() {
+            return CountCache.this;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            invalidateAll();
+        }
+    }
+
+    private static class Total {
+        private final long value;
+        private final long loadedAt;
+
+        private Total(long value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package study.datajpa.cache;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import study.datajpa.event.MemberChangedEvent;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * member 테이블 버전. 회원이 바뀔 때마다(벌크 연산 포함) 올라간다.
+ * 조회 API 의 ETag, Last-Modified 를 쿼리 없이 만들기 위해 쓴다. (MemberController)
+ * MemberDto 의 teamName 은 팀 이름이 바뀌면 달라지지만 Team 은 이름을 바꾸는 메서드가 없어서 회원 변경만 본다.
+ *
+ * 이 프로세스에서 일어난 변경만 알기 때문에 인스턴스를 여러 대 띄우거나 DB 를 직접 고치면 맞지 않는다.
+ * 재시작하면 epoch 가 바뀌어 이전 ETag 는 모두 불일치가 된다.
+ */
+@Component
+public class MemberTableVersion {
+
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastModified = System.currentTimeMillis();
+
+    // 데이터를 읽기 "전에" 가져가야 한다.
+    // 읽는 도중에 커밋된 변경은 다음 요청에서 ETag 가 달라져 다시 읽게 된다.
+    public String etag() {
+        return "\"m-" + epoch + "-" + version.get() + "\"";
+    }
+
+    // HTTP 날짜는 초 단위라서 같은 초 안의 변경은 If-Modified-Since 로 구분하지 못한다. (ETag 를 우선 쓴다)
+    public long lastModified() {
+        return lastModified;
+    }
+
+    public void bump() {
+        version.incrementAndGet();
+        lastModified = System.currentTimeMillis();
+    }
+
+    // CountCache 와 같은 이유로 flush 시점과 커밋 이후에 두 번 올린다.
+    // 커밋 전에 이전 데이터를 새 버전으로 내려준 응답이 있어도 커밋 이후의 버전과는 다르다.
+    @EventListener
+    public void onMemberChanged(MemberChangedEvent event) {
+        bump();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void afterMemberChangeCommitted(MemberChangedEvent event) {
+        bump();
+    }
+}
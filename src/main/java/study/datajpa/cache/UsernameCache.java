@@ -0,0 +1,197 @@
+package study.datajpa.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.event.MemberChangedEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * username -> member id 목록 니어 캐시 (UsernameCacheAspect)
+ * 엔티티는 영속성 컨텍스트마다 달라야 하므로 id 만 담고, 엔티티는 em.find 로 꺼낸다. (1차 캐시, l2cache 프로파일이면 2차 캐시)
+ * 없는 username 도 빈 목록으로 담는다. (negative caching)
+ * 크기 제한과 교체는 Caffeine(W-TinyLFU)에 맡긴다.
+ * id -> username 역색인(byId)을 같이 두어서 회원 단위 무효화가 캐시 전체를 훑지 않는다.
+ * 역색인은 캐시에서 빠질 때(removal listener) 정리하고, 남는 쪽(필요 없는 username 을 더 지우는 쪽)으로만 어긋난다.
+ *
+ * 무효화는 CountCache 처럼 flush 시점과 트랜잭션 종료 시점(커밋, 롤백) 두 번 한다.
+ * Member 를 바꾼 트랜잭션 안에서는 커밋 전 상태가 캐시에 섞이지 않도록 캐시를 쓰지 않는다.
+ */
+@Component
+public class UsernameCache {
+
+    private final Cache<String, List<Long>> cache;
+    private final Map<Long, Set<String>> byId = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public UsernameCache(MeterRegistry meterRegistry,
+                         @Value("${datajpa.username-cache.maximum-size:10000}") long maximumSize,
+                         @Value("${datajpa.username-cache.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .removalListener(this::onRemoval)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "member.username");
+    }
+
+    // 없으면 null, 있으면 id 목록 (빈 목록 = 그런 회원 없음)
+    public List<Long> get(String username) {
+        return cache.getIfPresent(username);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    // 조회하는 사이에 무효화 되었다면 이전 값일 수 있으니 담지 않는다
+    public void put(String username, List<Long> ids, long startedGeneration) {
+        if (generation.get() != startedGeneration || isChangedInTransaction()) {
+            return;
+        }
+        List<Long> copy = List.copyOf(ids);
+        cache.put(username, copy);
+        // 역색인은 캐시에 담은 뒤에 추가한다. 그 사이의 invalidateMembers 는 generation 으로 아래에서 걸러진다.
+        for (Long id : copy) {
+            byId.compute(id, (key, usernames) -> {
+                Set<String> result = usernames == null ? new HashSet<>() : usernames;
+                result.add(username);
+                return result;
+            });
+        }
+        if (generation.get() != startedGeneration) {
+            cache.invalidate(username);     // 담는 사이에 무효화 된 경우
+        }
+    }
+
+    public void invalidate(String username) {
+        generation.incrementAndGet();
+        if (username != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    public void invalidateMembers(Set<Long> memberIds) {
+        generation.incrementAndGet();
+        List<String> usernames = new ArrayList<>();
+        for (Long id : memberIds) {
+            byId.computeIfPresent(id, (key, names) -> {
+                usernames.addAll(names);
+                return names;
+            });
+        }
+        // compute 밖에서 지운다 (removal listener 가 같은 키를 compute 한다)
+        cache.invalidateAll(usernames);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    // 지금 캐시에 같은 username 으로 그 id 가 다시 담겨 있으면 역색인을 남긴다. (교체, 지운 뒤 다시 담은 경우)
+    private void onRemoval(String username, List<Long> ids, RemovalCause cause) {
+        if (username == null || ids == null) {
+            return;
+        }
+        for (Long id : ids) {
+            byId.computeIfPresent(id, (key, usernames) -> {
+                List<Long> current = cache.asMap().get(username);     // 통계에 안 잡히게 asMap 으로 본다
+                if (current == null || !current.contains(id)) {
+                    usernames.remove(username);
+                }
+                return usernames.isEmpty() ? null : usernames;
+            });
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    // 현재 트랜잭션에서 Member 가 바뀌었는지 (flush 된 변경 기준)
+    public boolean isChangedInTransaction() {
+        return TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.getSynchronizations().stream()
+                .anyMatch(synchronization -> synchronization instanceof Changes && ((Changes) synchronization).owner() == this);
+    }
+
+    @EventListener
+    public void onMemberChanged(MemberChangedEvent event) {
+        if (event.isBulk()) {
+            invalidateAll();
+        } else {
+            invalidate(event.getUsername());
+            // 이름이 바뀌었다면 이전 이름으로 담긴 목록에도 들어 있다. (새로 생긴 id 는 어디에도 없다)
+            if (event.getType() != MemberChangedEvent.Type.CREATED) {
+                invalidateMembers(Set.of(event.getMemberId()));
+            }
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            changes().add(event);
+        }
+    }
+
+    private Changes changes() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Changes && ((Changes) synchronization).owner() == this) {
+                return (Changes) synchronization;
+            }
+        }
+        Changes changes = new Changes();
+        TransactionSynchronizationManager.registerSynchronization(changes);
+        return changes;
+    }
+
+    // 트랜잭션 동안 바뀐 Member 를 모아 두었다가 커밋/롤백 후에 한 번 더 지운다.
+    // 커밋 전에 다른 트랜잭션이 이전 값을 다시 담았을 수 있기 때문
+    private class Changes implements TransactionSynchronization {
+        private final Set<String> usernames = new HashSet<>();
+        private final Set<Long> memberIds = new HashSet<>();
+        private boolean bulk;
+
+        private UsernameCache owner() {
+            return UsernameCache.this;
+        }
+
+        private void add(MemberChangedEvent event) {
+            if (event.isBulk()) {
+                bulk = true;
+                return;
+            }
+            usernames.add(event.getUsername());
+            if (event.getType() != MemberChangedEvent.Type.CREATED) {
+                memberIds.add(event.getMemberId());
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (bulk) {
+                invalidateAll();
+                return;
+            }
+            usernames.forEach(UsernameCache.this::invalidate);
+            if (!memberIds.isEmpty()) {
+                invalidateMembers(memberIds);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package study.datajpa.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * username 단순 조회 메서드에 UsernameCache 를 적용한다.
+ * 캐시에 있으면 쿼리 대신 id 로 em.find 하고, 꺼낸 엔티티의 username 이 다르거나 없어졌으면 원래 쿼리로 다시 조회한다.
+ * 락, 엔티티 그래프, 읽기 전용 힌트가 붙은 조회는 의미가 달라서 제외한다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datajpa.username-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class UsernameCacheAspect {
+
+    private final UsernameCache usernameCache;
+    private final EntityManager em;
+
+    @Around("(execution(* study.datajpa.repository.MemberRepository.findByUsername(String))" +
+            " || execution(* study.datajpa.repository.MemberRepository.findListByUsername(String))" +
+            " || execution(* study.datajpa.repository.MemberRepository.findMemberByUsername(String))" +
+            " || execution(* study.datajpa.repository.MemberRepository.findOptionalByUsername(String))" +
+            " || execution(* study.datajpa.repository.MemberJpaRepository.findByUsername(String)))" +
+            " && args(username)")
+    public Object cached(ProceedingJoinPoint joinPoint, String username) throws Throwable {
+        if (username == null || hasPendingChanges()) {
+            return joinPoint.proceed();
+        }
+
+        Class<?> returnType = ((MethodSignature) joinPoint.getSignature()).getReturnType();
+        List<Long> ids = usernameCache.get(username);
+        if (ids != null) {
+            List<Member> members = find(username, ids);
+            // 단건 조회인데 여러 건이면 원래 메서드가 예외를 던지도록 넘긴다
+            if (members != null && (Collection.class.isAssignableFrom(returnType) || members.size() <= 1)) {
+                return toResult(returnType, members);
+            }
+        }
+
+        long generation = usernameCache.generation();
+        Object result = joinPoint.proceed();
+        usernameCache.put(username, idsOf(result), generation);
+        return result;
+    }
+
+    // 현재 트랜잭션에 Member 변경이 있으면 쿼리가 auto flush 한 결과를 봐야 하므로 캐시를 쓰지 않는다
+    // - flush 된 변경 : UsernameCache.Changes (엔티티 리스너 이벤트)
+    // - flush 전 변경 : 수정할 수 있는 엔티티를 읽은 적이 있는지만 본다. (isDirty 처럼 영속성 컨텍스트를 훑지 않는다)
+    //   readOnly 트랜잭션은 엔티티를 읽기 전용으로 읽으므로 캐시를 그대로 쓴다.
+    private boolean hasPendingChanges() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return false;
+        }
+        return usernameCache.isChangedInTransaction()
+                || em.unwrap(SessionImplementor.class).getPersistenceContext().hasNonReadOnlyEntities();
+    }
+
+    private List<Member> find(String username, List<Long> ids) {
+        List<Member> members = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Member member = em.find(Member.class, id);
+            if (member == null || !username.equals(member.getUsername())) {
+                usernameCache.invalidate(username);
+                return null;
+            }
+            members.add(member);
+        }
+        return members;
+    }
+
+    private Object toResult(Class<?> returnType, List<Member> members) {
+        if (Collection.class.isAssignableFrom(returnType)) {
+            return members;
+        }
+        Member member = members.isEmpty() ? null : members.get(0);
+        return Optional.class.equals(returnType) ? Optional.ofNullable(member) : member;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> idsOf(Object result) {
+        if (result instanceof Optional) {
+            result = ((Optional<Member>) result).orElse(null);
+        }
+        if (result == null) {
+            return Collections.emptyList();
+        }
+        if (result instanceof Member) {
+            return List.of(((Member) result).getId());
+        }
+        return ((Collection<Member>) result).stream()
+                .map(Member::getId)
+                .collect(Collectors.toList());
+    }
+}
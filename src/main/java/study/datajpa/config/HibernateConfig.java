@@ -0,0 +1,24 @@
+package study.datajpa.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.datajpa.audit.AuditClock;
+import study.datajpa.audit.AuditFlushInterceptor;
+import study.datajpa.sql.SqlStatementCounter;
+
+@Configuration
+public class HibernateConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    // flush 마다 감사 시각을 새로 읽도록 (AuditClock)
+    @Bean
+    public HibernatePropertiesCustomizer auditInterceptorCustomizer(AuditClock auditClock) {
+        return properties -> properties.put(AvailableSettings.INTERCEPTOR, new AuditFlushInterceptor(auditClock));
+    }
+}
@@ -0,0 +1,32 @@
+package study.datajpa.config;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import study.datajpa.metrics.RepositoryMetrics;
+import study.datajpa.metrics.RepositoryMetricsInterceptor;
+import study.datajpa.sql.SqlStatementCounter;
+
+@Configuration
+@EnableScheduling
+public class RepositoryMetricsConfig {
+
+    // 스프링 데이터 레포지토리(프록시) + 직접 만든 레포지토리 클래스
+    // *Impl 은 스프링 데이터 레포지토리를 통해 호출되므로 중복 집계하지 않는다.
+    private static final String REPOSITORIES =
+            "this(org.springframework.data.repository.Repository)" +
+            " || (within(study.datajpa.repository..*) && !within(study.datajpa.repository..*Impl))";
+
+    @Bean
+    public static Advisor repositoryMetricsAdvisor(ObjectProvider<RepositoryMetrics> repositoryMetrics,
+                                                   ObjectProvider<SqlStatementCounter> sqlStatementCounter) {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(REPOSITORIES);
+        return new DefaultPointcutAdvisor(pointcut,
+                new RepositoryMetricsInterceptor(repositoryMetrics, sqlStatementCounter));
+    }
+}
@@ -0,0 +1,71 @@
+package study.datajpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import study.datajpa.datasource.ReadWriteRoutingDataSource;
+import study.datajpa.datasource.ReplicaHealthChecker;
+import study.datajpa.datasource.ReplicaPool;
+import study.datajpa.datasource.ReplicaProperties;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// 읽기/쓰기 분리 : datajpa.datasource.routing.enabled=true 일 때만 사용
+// 복제본은 주 DB 를 실제로 복제하는 DB 여야 한다. ddl-auto, 초기 데이터는 주 DB 에만 적용되고 복제본 스키마는 만들지 않는다.
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(name = "datajpa.datasource.routing.enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(DataSourceProperties dataSourceProperties,
+                                                        ReplicaProperties replicaProperties,
+                                                        MeterRegistry meterRegistry,
+                                                        Environment environment) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        // 자동 설정 DataSource 를 대신하므로 풀 설정(spring.datasource.hikari.*)도 직접 붙인다
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+
+        List<ReplicaPool> replicas = new ArrayList<>();
+        for (ReplicaProperties.Replica replica : replicaProperties.getReplicas()) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+            dataSource.setPoolName(replica.getName());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            replicas.add(new ReplicaPool(replica.getName(), dataSource, replica.getLagQuery(), replica.getMaxLag()));
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicaHealthChecker replicaHealthChecker(ReadWriteRoutingDataSource routingDataSource,
+                                                     MeterRegistry meterRegistry) {
+        return new ReplicaHealthChecker(routingDataSource.getReplicas(), meterRegistry);
+    }
+}
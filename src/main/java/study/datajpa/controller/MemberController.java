@@ -1,28 +1,50 @@
 package study.datajpa.controller;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import study.datajpa.cache.MemberTableVersion;
+import study.datajpa.dto.CursorPage;
+import study.datajpa.dto.MemberChanges;
 import study.datajpa.dto.MemberDto;
-import study.datajpa.entity.Member;
+import study.datajpa.repository.InvalidPageRequestException;
+import study.datajpa.repository.MemberChangeJdbcRepository;
+import study.datajpa.repository.MemberReadPath;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.service.MemberExportService;
 
-import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_CHANGES_SIZE = 1000;
+
     private final MemberRepository memberRepository;
+    private final MemberExportService memberExportService;
+    private final MemberChangeJdbcRepository memberChangeJdbcRepository;
+    private final MemberTableVersion memberTableVersion;
+    private final MeterRegistry meterRegistry;
 
     @GetMapping("/members/{id}")
-    public String findMember(@PathVariable("id") Long id) {
-        Member member = memberRepository.findById(id).get();
-        return member.getUsername();
+    public String findMember(@PathVariable("id") Long id, ServletWebRequest request) {
+        if (notModified(request, "/members/{id}")) {
+            return null;
+        }
+        // username 하나만 필요하므로 엔티티 대신 스칼라로 조회한다.
+        return memberRepository.findUsernameById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "없는 회원입니다. id=" + id));
     }
 
 //    권장하지 않음
@@ -32,20 +54,63 @@ public class MemberController {
 //    }
 
     @GetMapping("/members")
-    public Page<MemberDto> list(@PageableDefault(size = 5) Pageable pageable) {
+    public Page<MemberDto> list(@PageableDefault(size = 5) Pageable pageable, ServletWebRequest request) {
+        if (notModified(request, "/members")) {
+            return null;
+        }
         // Page : 결과 정보, Pageable : 파라미터 정보
         // 기본적으로 page 조건을 붙이면 20개씩 불러온다(기본값)
 //        return memberRepository.findAll(pageable);
 
-        return memberRepository.findAll(pageable).map(MemberDto::new);
+//        return memberRepository.findAllWithCachedCount(pageable).map(MemberDto::new);
+
+        // 엔티티 없이 JDBC 로 바로 MemberDto 를 만든다. (응답 모양은 같다)
+        return memberRepository.findMemberDtoPage(pageable, MemberReadPath.JDBC);
     }
 
-    @PostConstruct
-    public void init() {
-        for (int i = 1; i <= 100; i++) {
-            memberRepository.save(Member.builder().username("user" + i)
-                    .age(i)
-                    .build());
-        }
+    // 전체 개수가 필요 없는 화면(더보기 등)은 count 쿼리 없이 다음 페이지 여부만 준다.
+    @GetMapping("/members/slice")
+    public Slice<MemberDto> slice(@PageableDefault(size = 5) Pageable pageable) {
+        return memberRepository.findSliceBy(pageable).map(MemberDto::new);
+    }
+
+    // 키셋 페이징 : 응답의 nextCursor 를 다음 요청의 cursor 로 넘긴다.
+    // 페이지가 깊어져도 offset 처럼 느려지지 않는다.
+    @GetMapping("/members/cursor")
+    public CursorPage<MemberDto> listByCursor(@RequestParam(required = false) String cursor,
+                                              @PageableDefault(size = 5, sort = "username") Pageable pageable) {
+        return memberRepository.findAllByCursor(cursor, pageable).map(MemberDto::new);
+    }
+
+    // 변경분 동기화 : 처음에는 cursor 없이 호출하고, 이후에는 받은 cursor 를 그대로 넘긴다.
+    // hasMore 가 false 가 될 때까지 이어서 가져오면 된다. 삭제된 회원은 deleted = true 로 내려간다.
+    @GetMapping("/members/changes")
+    public MemberChanges changes(@RequestParam(required = false) String cursor,
+                                 @RequestParam(defaultValue = "100") int size) {
+        return memberChangeJdbcRepository.findChanges(cursor, Math.min(Math.max(size, 1), MAX_CHANGES_SIZE));
+    }
+
+    // 전체 회원 덤프 : 응답 스트림에 한 줄씩 바로 쓴다.
+    @GetMapping(value = "/members/export", produces = "application/x-ndjson")
+    public void export(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        memberExportService.exportNdjson(response.getOutputStream());
+    }
+
+    // 조건부 GET : 회원 테이블이 그대로면 쿼리도 직렬화도 없이 304 를 돌려준다.
+    // ETag 는 테이블 버전이라 페이지마다 다르지 않다. (캐시는 URL 별로 잡히므로 상관없다)
+    // true 면 응답이 이미 304 로 정해졌으니 null 을 반환하면 된다.
+    private boolean notModified(ServletWebRequest request, String endpoint) {
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        boolean notModified = request.checkNotModified(memberTableVersion.etag(), memberTableVersion.lastModified());
+        meterRegistry.counter("http.conditional", "endpoint", endpoint, "result", notModified ? "not-modified" : "modified")
+                .increment();
+        return notModified;
+    }
+
+    @ExceptionHandler(InvalidPageRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String badRequest(InvalidPageRequestException e) {
+        return e.getMessage();
     }
 }
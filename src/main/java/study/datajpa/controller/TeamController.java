@@ -0,0 +1,27 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.dto.TeamRosterDto;
+import study.datajpa.repository.TeamRepository;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private static final int MAX_MEMBER_LIMIT = 100;
+
+    private final TeamRepository teamRepository;
+
+    // 팀 목록 + 팀마다 회원 memberLimit 명까지
+    @GetMapping("/teams/roster")
+    public Page<TeamRosterDto> roster(@PageableDefault(size = 20, sort = "id") Pageable pageable,
+                                      @RequestParam(defaultValue = "10") int memberLimit) {
+        return teamRepository.findRoster(pageable, Math.min(Math.max(memberLimit, 0), MAX_MEMBER_LIMIT));
+    }
+}
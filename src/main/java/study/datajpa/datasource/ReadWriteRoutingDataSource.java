@@ -0,0 +1,96 @@
+package study.datajpa.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Transactional(readOnly = true) 는 복제본으로, 나머지는 주 DB 로 보낸다.
+ * 복제본은 라운드 로빈으로 고르고, 정상인 복제본이 없으면 주 DB 로 보낸다.
+ * 트랜잭션 시작 시점에는 readOnly 여부가 아직 설정되지 않으므로
+ * LazyConnectionDataSourceProxy 로 감싸서 실제 커넥션을 첫 SQL 시점에 얻도록 해야 한다.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<ReplicaPool> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Map<String, Counter> routed = new HashMap<>();
+    private final Counter fallback;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<ReplicaPool> replicas, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        routed.put(PRIMARY, routedCounter(meterRegistry, PRIMARY));
+        for (ReplicaPool replica : replicas) {
+            targets.put(replica.getName(), replica.getDataSource());
+            routed.put(replica.getName(), routedCounter(meterRegistry, replica.getName()));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        this.fallback = Counter.builder("datasource.routing.fallback")
+                .description("정상 복제본이 없어 읽기를 주 DB 로 보낸 횟수")
+                .register(meterRegistry);
+    }
+
+    private static Counter routedCounter(MeterRegistry meterRegistry, String pool) {
+        return Counter.builder("datasource.routing").tag("pool", pool).register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String key = lookupKey();
+        routed.get(key).increment();
+        return key;
+    }
+
+    private String lookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || replicas.isEmpty()) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            ReplicaPool replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                return replica.getName();
+            }
+        }
+        fallback.increment();
+        return PRIMARY;
+    }
+
+    public List<ReplicaPool> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        close(primary);
+        for (ReplicaPool replica : replicas) {
+            close(replica.getDataSource());
+        }
+    }
+
+    private static void close(DataSource dataSource) throws IOException {
+        if (dataSource instanceof Closeable) {
+            ((Closeable) dataSource).close();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package study.datajpa.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+
+// 복제본 연결, 복제 지연을 주기적으로 확인해서 라우팅 대상에서 빼거나 다시 넣는다.
+public class ReplicaHealthChecker {
+
+    private final List<ReplicaPool> replicas;
+
+    public ReplicaHealthChecker(List<ReplicaPool> replicas, MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        for (ReplicaPool replica : replicas) {
+            Gauge.builder("datasource.replica.up", replica, pool -> pool.isHealthy() ? 1 : 0)
+                    .tag("pool", replica.getName())
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.lag", replica, ReplicaPool::getLagSeconds)
+                    .tag("pool", replica.getName())
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${datajpa.datasource.routing.health-check-interval:PT5S}")
+    public void check() {
+        replicas.forEach(ReplicaPool::check);
+    }
+}
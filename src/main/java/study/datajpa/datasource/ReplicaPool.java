@@ -0,0 +1,69 @@
+package study.datajpa.datasource;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+// 복제본 커넥션 풀 하나와 상태. 상태는 ReplicaHealthChecker 가 주기적으로 갱신한다.
+@Slf4j
+@Getter
+public class ReplicaPool {
+
+    private final String name;
+    private final DataSource dataSource;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    private volatile boolean healthy = true;
+    private volatile double lagSeconds;
+
+    public ReplicaPool(String name, DataSource dataSource, String lagQuery, Duration maxLag) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    public void check() {
+        boolean wasHealthy = healthy;
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isValid(1)) {
+                markDown("connection invalid");
+                return;
+            }
+            if (lagQuery != null) {
+                lagSeconds = queryLag(connection);
+                if (lagSeconds > maxLag.getSeconds()) {
+                    markDown("lag " + lagSeconds + "s");
+                    return;
+                }
+            }
+            healthy = true;
+            if (!wasHealthy) {
+                log.info("replica {} 복구", name);
+            }
+        } catch (SQLException e) {
+            markDown(e.getMessage());
+        }
+    }
+
+    void markDown(String reason) {
+        if (healthy) {
+            log.warn("replica {} 제외 : {}", name, reason);
+        }
+        healthy = false;
+    }
+
+    private double queryLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            return resultSet.next() ? resultSet.getDouble(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package study.datajpa.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// datajpa.datasource.* : 읽기 전용 복제본(replica) 설정. 주 DB 는 spring.datasource 를 그대로 쓴다.
+@Getter
+@Setter
+@ConfigurationProperties("datajpa.datasource")
+public class ReplicaProperties {
+
+    private Routing routing = new Routing();
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Routing {
+        private boolean enabled;
+        private Duration healthCheckInterval = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        // 복제 지연(초)을 돌려주는 쿼리. 없으면 연결 확인만 한다.
+        private String lagQuery;
+        private Duration maxLag = Duration.ofSeconds(10);
+    }
+}
@@ -0,0 +1,29 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// 키셋(커서) 페이징 결과
+// Page 와 달리 total count 가 없고, 다음 페이지를 위한 커서만 내려준다.
+@Getter
+public class CursorPage<T> {
+    private final List<T> content;
+    private final String nextCursor;    // 마지막 페이지면 null
+    private final boolean hasNext;
+
+    public CursorPage(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+    }
+
+    public <U> CursorPage<U> map(Function<? super T, ? extends U> converter) {
+        List<U> converted = content.stream()
+                .map(converter)
+                .collect(Collectors.toList());
+        return new CursorPage<>(converted, nextCursor);
+    }
+}
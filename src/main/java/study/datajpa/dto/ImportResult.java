@@ -0,0 +1,23 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+// 파일 가져오기 결과
+@Getter
+@ToString
+public class ImportResult {
+    private final String job;
+    private final long rows;            // 이번 실행에서 넣은 행 수
+    private final long resumedAfterLine; // 이전 실행의 체크포인트 (처음이면 0)
+    private final long elapsedMillis;
+    private final long rowsPerSecond;
+
+    public ImportResult(String job, long rows, long resumedAfterLine, long elapsedNanos) {
+        this.job = job;
+        this.rows = rows;
+        this.resumedAfterLine = resumedAfterLine;
+        this.elapsedMillis = elapsedNanos / 1_000_000;
+        this.rowsPerSecond = elapsedNanos == 0 ? 0 : rows * 1_000_000_000L / elapsedNanos;
+    }
+}
@@ -0,0 +1,18 @@
+package study.datajpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// 변경분 한 건. deleted 면 id, changedAt 만 채워진다. (tombstone)
+@Data
+@AllArgsConstructor
+public class MemberChangeDto {
+    private Long id;
+    private String username;
+    private Integer age;
+    private String teamName;
+    private LocalDateTime changedAt;
+    private boolean deleted;
+}
@@ -0,0 +1,20 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+// 변경분 동기화 결과
+// CursorPage 와 달리 더 가져올 게 없어도 cursor 를 준다. 다음 동기화는 이 cursor 부터 시작한다.
+@Getter
+public class MemberChanges {
+    private final List<MemberChangeDto> changes;
+    private final String cursor;
+    private final boolean hasMore;
+
+    public MemberChanges(List<MemberChangeDto> changes, String cursor, boolean hasMore) {
+        this.changes = changes;
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+    }
+}
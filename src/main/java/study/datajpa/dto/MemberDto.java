@@ -14,6 +14,6 @@ public class MemberDto {
     public MemberDto(Member m) {
         this.id = m.getId();
         this.username = m.getUsername();
-        this.teamName = m.getTeam().getName();
+        this.teamName = m.getTeam() != null ? m.getTeam().getName() : null;
     }
 }
@@ -0,0 +1,8 @@
+package study.datajpa.dto;
+
+// 인터페이스 기반 프로젝션 : 필요한 컬럼만 select 하고 엔티티를 만들지 않는다.
+public interface MemberSummary {
+    Long getId();
+    String getUsername();
+    int getAge();
+}
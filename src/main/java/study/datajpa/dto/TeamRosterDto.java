@@ -0,0 +1,16 @@
+package study.datajpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// 팀 명단 : members 는 memberLimit 명까지만, memberCount 는 전체 인원
+@Data
+@AllArgsConstructor
+public class TeamRosterDto {
+    private Long id;
+    private String name;
+    private long memberCount;
+    private List<MemberDto> members;
+}
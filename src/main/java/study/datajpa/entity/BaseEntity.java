@@ -11,6 +11,7 @@ import javax.persistence.Column;
 import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Getter
 @MappedSuperclass
@@ -20,15 +21,27 @@ public class BaseEntity {
     @Column(updatable = false)
     private LocalDateTime createdDate;
 
+    // 변경분 동기화 인덱스(Member)에서 이름으로 가리키므로 컬럼명을 적어둔다
     @LastModifiedDate
+    @Column(name = "last_modified_date")
     private LocalDateTime lastModifiedDate;
 
     // 등록자와 수정자는 호출하면 어플리케이션의
-    // AuditorAware 호출 그 반환값을 받는다.
+    // AuditorAware 호출 그 반환값을 받는다. (CachedAuditorAware)
+    // 36자 문자열 대신 16바이트 binary 로 저장
     @CreatedBy
-    @Column(updatable = false)
-    private String createBy;
+    @Column(updatable = false, length = 16)
+    private UUID createBy;
 
     @LastModifiedBy
-    private String lastModifiedBy;
+    @Column(length = 16)
+    private UUID lastModifiedBy;
+
+    // 엔티티 리스너를 거치지 않는 저장(StatelessSession 가져오기)에서 직접 채운다. (MemberImportService)
+    public void audit(LocalDateTime now, UUID auditor) {
+        this.createdDate = now;
+        this.lastModifiedDate = now;
+        this.createBy = auditor;
+        this.lastModifiedBy = auditor;
+    }
 }
@@ -0,0 +1,33 @@
+package study.datajpa.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.LocalDateTime;
+
+// 파일 가져오기 진행 위치 : job 마다 마지막으로 커밋한 줄 번호 (MemberImportService)
+// 데이터와 같은 트랜잭션에서 바뀌므로 다시 실행해도 같은 줄을 두 번 넣지 않는다.
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ImportCheckpoint {
+
+    @Id
+    private String job;
+    private long line;
+    private LocalDateTime updatedDate;
+
+    public ImportCheckpoint(String job, long line, LocalDateTime updatedDate) {
+        this.job = job;
+        this.line = line;
+        this.updatedDate = updatedDate;
+    }
+
+    public void moveTo(long line, LocalDateTime updatedDate) {
+        this.line = line;
+        this.updatedDate = updatedDate;
+    }
+}
@@ -0,0 +1,25 @@
+package study.datajpa.entity;
+
+import lombok.RequiredArgsConstructor;
+import study.datajpa.audit.AuditClock;
+
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+
+// 엔티티마다 LocalDateTime.now() 를 부르지 않고 AuditClock 의 flush 단위 시각을 쓴다.
+@RequiredArgsConstructor
+public class JpaBaseEntityListener {
+
+    private final AuditClock auditClock;
+
+    // Persist 하기 전에 실행 (prev)
+    @PrePersist
+    public void prePersist(JpaBaseEntity entity) {
+        entity.prePersist(auditClock.now());
+    }
+
+    @PreUpdate
+    public void preUpdate(JpaBaseEntity entity) {
+        entity.preUpdate(auditClock.now());
+    }
+}
@@ -1,6 +1,10 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import study.datajpa.event.MemberEntityListener;
 
 import javax.persistence.*;
 
@@ -15,16 +19,40 @@ import javax.persistence.*;
         query = "select m from Member m where m.username = :username"
 )
 @NamedEntityGraph(name = "Member.all", attributeNodes = @NamedAttributeNode("team"))
-public class Member {
+@EntityListeners(MemberEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member")   // 2차 캐시 : l2cache 프로파일
+// username 조회(findByUsername, findUser, findByNames ...)는 (username, age) 하나로 username = ? and age 조건까지 처리한다.
+// age 조회(findByAge, findByPage, bulkAgePlus), 팀별 회원(findRoster), 변경분 동기화
+// 조회 계획은 QueryPlanTest 가 확인한다. 쿼리를 추가하면 거기에도 넣는다.
+@Table(indexes = {
+        @Index(name = "idx_member_username_age", columnList = "username, age"),
+        @Index(name = "idx_member_age", columnList = "age"),
+        @Index(name = "idx_member_team", columnList = "team_id, member_id"),
+        @Index(name = "idx_member_last_modified", columnList = "last_modified_date, member_id")
+})
+public class Member extends BaseEntity {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // IDENTITY 는 persist 시점에 insert 가 나가서 JDBC 배치가 안 된다.
+    // 시퀀스 + pooled 최적화로 id 를 미리 받아두고 insert 는 flush 때 모아서 보낸다.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
     @Column(name = "member_id")
     private Long id;
     private String username;
     private int age;
+
+    // 낙관적 락 : 수정 시 where version = ? 로 확인하고 1 올린다. (OptimisticUpdater)
+    // 벌크 update 쿼리는 영속성 컨텍스트를 거치지 않으므로 쿼리에서 직접 version = version + 1 을 한다.
+    // 그래야 벌크 수정 전에 읽어 둔 엔티티로 수정할 때 충돌로 걸러진다.
+    @Version
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
     private Team team;
+
     public Member(String username, int age, Team team) {
         this.username = username;
         this.age = age;
@@ -36,8 +64,25 @@ public class Member {
     public void changeName(String username) {
         this.username = username;
     }
+    // 연관관계의 주인(team_id)만 바꾼다.
+    // Team.members 는 이미 로딩된 경우에만 메모리 상태를 맞춘다. 로딩되지 않은 컬렉션에 add 하면 팀원 전체를 읽어온다.
     public void changeTeam(Team team) {
+        Team previous = this.team;
         this.team = team;
-        team.getMembers().add(this);
+        if (previous != null && previous != team && isMembersLoaded(previous)) {
+            previous.getMembers().remove(this);
+        }
+        if (team != null && isMembersLoaded(team)) {
+            team.getMembers().add(this);
+        }
+    }
+
+    public void leaveTeam() {
+        changeTeam(null);
+    }
+
+    // 프록시가 초기화되지 않았다면 members 를 물어보는 것만으로 팀 조회가 나가므로 먼저 확인한다
+    private static boolean isMembersLoaded(Team team) {
+        return Hibernate.isInitialized(team) && Hibernate.isInitialized(team.getMembers());
     }
 }
@@ -0,0 +1,28 @@
+package study.datajpa.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+// 삭제된 회원 기록 : 변경분 동기화에서 "이 회원은 지워졌다" 를 알려주기 위해 남긴다.
+// 행은 MemberTombstoneWriter 가 JDBC 로 넣는다. (스키마 생성용 엔티티)
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(indexes = @Index(name = "idx_member_tombstone_deleted", columnList = "deleted_date, member_id"))
+public class MemberTombstone {
+
+    @Id
+    @Column(name = "member_id")
+    private Long memberId;
+
+    @Column(name = "deleted_date", nullable = false)
+    private LocalDateTime deletedDate;
+}
@@ -1,10 +1,13 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 @Entity
 @Getter
@@ -12,14 +15,36 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
-public class Team {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team")
+@Table(indexes = @Index(name = "idx_team_name", columnList = "name"))
+public class Team extends BaseEntity {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 50)
     @Column(name = "team_id")
     private Long id;
     private String name;
 
+    @Version
+    private Long version;
+
+    // 여러 팀의 members 를 초기화할 때 팀마다 쿼리하지 않고 in 절로 묶어서 가져온다 (default_batch_fetch_size)
     @Builder.Default
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team.members")
     @OneToMany(mappedBy = "team", fetch = FetchType.LAZY)
     private List<Member> members = new ArrayList<>();
+
+    // 팀원 추가 : members 를 초기화하지 않는다. (Member.changeTeam)
+    public void addMember(Member member) {
+        member.changeTeam(this);
+    }
+
+    public void removeMember(Member member) {
+        // member.getTeam() 은 프록시일 수 있으므로 id 로 비교한다
+        if (member.getTeam() != null && Objects.equals(member.getTeam().getId(), id)) {
+            member.leaveTeam();
+        }
+    }
 }
@@ -0,0 +1,71 @@
+package study.datajpa.event;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// *InBatch 삭제는 엔티티 리스너를 거치지 않으므로 삭제 직전에 member_tombstone 을 남긴다. (변경분 동기화)
+// 기록과 삭제가 같이 커밋되도록 하나의 트랜잭션으로 묶는다. (바깥 트랜잭션이 있으면 거기에 참여)
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MemberBatchDeleteAspect {
+
+    private final MemberTombstoneWriter tombstoneWriter;
+    private final TransactionTemplate transactionTemplate;
+
+    @Around("execution(* deleteAllInBatch()) && this(study.datajpa.repository.MemberRepository)")
+    public Object deleteAll(ProceedingJoinPoint joinPoint) throws Throwable {
+        return inTransaction(joinPoint, tombstoneWriter::writeAll);
+    }
+
+    @Around("(execution(* deleteAllInBatch(Iterable)) || execution(* deleteInBatch(Iterable)))" +
+            " && this(study.datajpa.repository.MemberRepository) && args(members)")
+    public Object deleteMembers(ProceedingJoinPoint joinPoint, Iterable<?> members) throws Throwable {
+        List<Long> ids = new ArrayList<>();
+        for (Object member : members) {
+            ids.add(((Member) member).getId());
+        }
+        return inTransaction(joinPoint, () -> tombstoneWriter.writeAll(ids));
+    }
+
+    @Around("execution(* deleteAllByIdInBatch(Iterable)) && this(study.datajpa.repository.MemberRepository) && args(ids)")
+    public Object deleteByIds(ProceedingJoinPoint joinPoint, Iterable<?> ids) throws Throwable {
+        List<Long> memberIds = new ArrayList<>();
+        for (Object id : ids) {
+            memberIds.add((Long) id);
+        }
+        return inTransaction(joinPoint, () -> tombstoneWriter.writeAll(memberIds));
+    }
+
+    private Object inTransaction(ProceedingJoinPoint joinPoint, Runnable tombstones) throws Throwable {
+        try {
+            return transactionTemplate.execute(status -> {
+                tombstones.run();
+                try {
+                    return joinPoint.proceed();
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new UndeclaredCheckedException(e);
+                }
+            });
+        } catch (UndeclaredCheckedException e) {
+            throw e.getCause();
+        }
+    }
+
+    // 트랜잭션 콜백 밖으로 checked 예외를 꺼내기 위한 포장
+    private static class UndeclaredCheckedException extends RuntimeException {
+        private UndeclaredCheckedException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package study.datajpa.event;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+// 벌크 연산은 영속성 컨텍스트와 엔티티 리스너를 거치지 않는다.
+// 그래서 bulk 쿼리를 실행한 뒤에 따로 이벤트를 발행한다.
+// JpaRepository 의 *InBatch 삭제(deleteAllInBatch, deleteAllByIdInBatch ...)도 delete 쿼리 한 번이라 같다.
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MemberBulkUpdateAspect {
+
+    private final ApplicationEventPublisher publisher;
+
+    @AfterReturning("execution(@org.springframework.data.jpa.repository.Modifying * study.datajpa.repository.MemberRepository.*(..))" +
+            " || execution(* study.datajpa.repository.MemberJpaRepository.bulk*(..))" +
+            " || (execution(* *InBatch(..)) && this(study.datajpa.repository.MemberRepository))")
+    public void afterBulkUpdate() {
+        publisher.publishEvent(MemberChangedEvent.bulkUpdated());
+    }
+}
@@ -0,0 +1,35 @@
+package study.datajpa.event;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import study.datajpa.entity.Member;
+
+// Member 가 바뀌었음을 캐시 등에 알리는 이벤트
+// 벌크 연산은 어떤 행이 바뀌었는지 모르므로 memberId, username 이 없다.
+@Getter
+@ToString
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class MemberChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, BULK_UPDATED
+    }
+
+    private final Type type;
+    private final Long memberId;
+    private final String username;
+
+    public static MemberChangedEvent of(Type type, Member member) {
+        return new MemberChangedEvent(type, member.getId(), member.getUsername());
+    }
+
+    public static MemberChangedEvent bulkUpdated() {
+        return new MemberChangedEvent(Type.BULK_UPDATED, null, null);
+    }
+
+    public boolean isBulk() {
+        return type == Type.BULK_UPDATED;
+    }
+}
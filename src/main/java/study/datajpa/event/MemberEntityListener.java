@@ -0,0 +1,32 @@
+package study.datajpa.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import study.datajpa.entity.Member;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+// 엔티티 리스너도 스프링 빈처럼 주입받을 수 있다. (하이버네이트 SpringBeanContainer)
+// flush 시점에 호출되므로 커밋 이후에 처리해야 하는 쪽은 @TransactionalEventListener 로 받는다.
+@RequiredArgsConstructor
+public class MemberEntityListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    @PostPersist
+    public void postPersist(Member member) {
+        publisher.publishEvent(MemberChangedEvent.of(MemberChangedEvent.Type.CREATED, member));
+    }
+
+    @PostUpdate
+    public void postUpdate(Member member) {
+        publisher.publishEvent(MemberChangedEvent.of(MemberChangedEvent.Type.UPDATED, member));
+    }
+
+    @PostRemove
+    public void postRemove(Member member) {
+        publisher.publishEvent(MemberChangedEvent.of(MemberChangedEvent.Type.DELETED, member));
+    }
+}
@@ -0,0 +1,48 @@
+package study.datajpa.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import study.datajpa.audit.AuditClock;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// 회원을 지우면 같은 트랜잭션 안에서 member_tombstone 에 기록한다. (롤백되면 같이 없어진다)
+// em.remove 는 엔티티 리스너 이벤트로, deleteAllInBatch 같은 벌크 삭제는 MemberBatchDeleteAspect 가 삭제 직전에 남긴다.
+@Component
+@RequiredArgsConstructor
+public class MemberTombstoneWriter {
+
+    private static final String INSERT = "insert into member_tombstone (member_id, deleted_date) values (?, ?)";
+    // 벌크 삭제 : 아직 남아 있는 회원만 기록한다 (없는 id 나 이미 지운 id 는 건너뛴다)
+    private static final String INSERT_EXISTING = "insert into member_tombstone (member_id, deleted_date)"
+            + " select member_id, ? from member";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditClock auditClock;
+
+    @EventListener
+    public void onMemberChanged(MemberChangedEvent event) {
+        if (event.getType() == MemberChangedEvent.Type.DELETED) {
+            jdbcTemplate.update(INSERT, event.getMemberId(), Timestamp.valueOf(auditClock.now()));
+        }
+    }
+
+    // deleteAllInBatch() : 전체 삭제
+    public void writeAll() {
+        jdbcTemplate.update(INSERT_EXISTING, Timestamp.valueOf(auditClock.now()));
+    }
+
+    public void writeAll(Collection<Long> memberIds) {
+        Timestamp now = Timestamp.valueOf(auditClock.now());
+        List<Object[]> args = new ArrayList<>(memberIds.size());
+        for (Long memberId : memberIds) {
+            args.add(new Object[]{now, memberId});
+        }
+        jdbcTemplate.batchUpdate(INSERT_EXISTING + " where member_id = ?", args);
+    }
+}
@@ -0,0 +1,96 @@
+package study.datajpa.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+import study.datajpa.dto.CursorPage;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// 레포지토리 메서드 하나의 지표. record 는 호출마다 실행되므로 객체를 만들지 않는다.
+@Getter
+public class MethodMetrics {
+
+    private final String repository;
+    private final String method;
+    private final Timer latency;
+    private final DistributionSummary rows;
+    private final DistributionSummary statements;
+    private final Counter errors;
+
+    MethodMetrics(MeterRegistry registry, String repository, String method) {
+        this.repository = repository;
+        this.method = method;
+        this.latency = Timer.builder("repository.invocations")
+                .tag("repository", repository)
+                .tag("method", method)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(registry);
+        this.rows = DistributionSummary.builder("repository.rows")
+                .tag("repository", repository)
+                .tag("method", method)
+                .register(registry);
+        this.statements = DistributionSummary.builder("repository.statements")
+                .tag("repository", repository)
+                .tag("method", method)
+                .register(registry);
+        this.errors = Counter.builder("repository.errors")
+                .tag("repository", repository)
+                .tag("method", method)
+                .register(registry);
+    }
+
+    void record(long nanos, Object result, long sqlStatements, boolean failed) {
+        latency.record(nanos, TimeUnit.NANOSECONDS);
+        statements.record(sqlStatements);
+        if (failed) {
+            errors.increment();
+            return;
+        }
+        long count = rowsOf(result);
+        if (count >= 0) {
+            rows.record(count);
+        }
+    }
+
+    // 행 수를 알 수 없는 반환 타입(Stream, 숫자 등)은 -1
+    private static long rowsOf(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof CursorPage) {
+            return ((CursorPage<?>) result).getContent().size();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number || result instanceof java.util.stream.BaseStream) {
+            return -1;
+        }
+        return 1;
+    }
+
+    public MethodStats stats() {
+        HistogramSnapshot snapshot = latency.takeSnapshot();
+        MethodStats stats = new MethodStats(repository, method, snapshot.count(),
+                snapshot.total(TimeUnit.MILLISECONDS), snapshot.mean(TimeUnit.MILLISECONDS),
+                rows.mean(), statements.mean(), (long) errors.count());
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            stats.putPercentile(percentile.percentile(), percentile.value(TimeUnit.MILLISECONDS));
+        }
+        return stats;
+    }
+}
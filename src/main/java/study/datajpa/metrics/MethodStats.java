@@ -0,0 +1,45 @@
+package study.datajpa.metrics;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// /actuator/repositories 응답, 주기 로그에 쓰는 스냅샷 (시간 단위 ms)
+@Getter
+public class MethodStats {
+
+    private final String repository;
+    private final String method;
+    private final long count;
+    private final double totalMs;
+    private final double meanMs;
+    private final Map<String, Double> percentilesMs = new LinkedHashMap<>();
+    private final double meanRows;
+    private final double meanStatements;
+    private final long errors;
+
+    MethodStats(String repository, String method, long count, double totalMs, double meanMs,
+                double meanRows, double meanStatements, long errors) {
+        this.repository = repository;
+        this.method = method;
+        this.count = count;
+        this.totalMs = totalMs;
+        this.meanMs = meanMs;
+        this.meanRows = meanRows;
+        this.meanStatements = meanStatements;
+        this.errors = errors;
+    }
+
+    void putPercentile(double percentile, double valueMs) {
+        String label = BigDecimal.valueOf(percentile).movePointRight(2).stripTrailingZeros().toPlainString();
+        percentilesMs.put("p" + label, valueMs);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s.%s count=%d total=%.1fms mean=%.3fms %s rows=%.1f sql=%.1f errors=%d",
+                repository, method, count, totalMs, meanMs, percentilesMs, meanRows, meanStatements, errors);
+    }
+}
@@ -0,0 +1,71 @@
+package study.datajpa.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * 레포지토리 메서드별 지표 저장소.
+ * 처음 호출될 때만 지표를 만들고 이후에는 조회만 하므로 호출 경로에서 할당이 없다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetrics {
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Method, MethodMetrics>> metrics = new ConcurrentHashMap<>();
+
+    public MethodMetrics get(Class<?> targetClass, Method method) {
+        ConcurrentMap<Method, MethodMetrics> byMethod = metrics.get(targetClass);
+        if (byMethod == null) {
+            byMethod = metrics.computeIfAbsent(targetClass, key -> new ConcurrentHashMap<>());
+        }
+        MethodMetrics methodMetrics = byMethod.get(method);
+        if (methodMetrics == null) {
+            methodMetrics = byMethod.computeIfAbsent(method,
+                    key -> new MethodMetrics(registry, repositoryName(targetClass), key.getName()));
+        }
+        return methodMetrics;
+    }
+
+    // 총 소요 시간이 큰 순서
+    public List<MethodStats> snapshot() {
+        return metrics.values().stream()
+                .flatMap(byMethod -> byMethod.values().stream())
+                .map(MethodMetrics::stats)
+                .sorted(Comparator.comparingDouble(MethodStats::getTotalMs).reversed())
+                .collect(Collectors.toList());
+    }
+
+    @Scheduled(initialDelayString = "${datajpa.repository-metrics.log-interval:PT1M}",
+            fixedDelayString = "${datajpa.repository-metrics.log-interval:PT1M}")
+    public void logSummary() {
+        List<MethodStats> stats = snapshot();
+        if (stats.isEmpty()) {
+            return;
+        }
+        log.info("repository 메서드 지표 (총 소요 시간 순)");
+        stats.stream().limit(20).forEach(methodStats -> log.info("  {}", methodStats));
+    }
+
+    // 스프링 데이터 레포지토리는 JDK 프록시라 구현한 레포지토리 인터페이스 이름을 쓴다
+    private static String repositoryName(Class<?> targetClass) {
+        for (Class<?> type : targetClass.getInterfaces()) {
+            if (type.getName().startsWith("study.datajpa.")) {
+                return type.getSimpleName();
+            }
+        }
+        return ClassUtils.getUserClass(targetClass).getSimpleName();
+    }
+}
@@ -0,0 +1,22 @@
+package study.datajpa.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// GET /actuator/repositories
+@Component
+@Endpoint(id = "repositories")
+@RequiredArgsConstructor
+public class RepositoryMetricsEndpoint {
+
+    private final RepositoryMetrics repositoryMetrics;
+
+    @ReadOperation
+    public List<MethodStats> stats() {
+        return repositoryMetrics.snapshot();
+    }
+}
@@ -0,0 +1,65 @@
+package study.datajpa.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import study.datajpa.sql.SqlStatementCounter;
+
+// 레포지토리 호출 시간, 반환 행 수, 실행된 SQL 수를 기록한다.
+// @Aspect 대신 MethodInterceptor 를 써서 호출마다 JoinPoint 객체를 만들지 않는다.
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<RepositoryMetrics> metricsProvider;
+    private final ObjectProvider<SqlStatementCounter> counterProvider;
+
+    private volatile RepositoryMetrics metrics;
+    private volatile SqlStatementCounter counter;
+
+    public RepositoryMetricsInterceptor(ObjectProvider<RepositoryMetrics> metricsProvider,
+                                        ObjectProvider<SqlStatementCounter> counterProvider) {
+        this.metricsProvider = metricsProvider;
+        this.counterProvider = counterProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object target = invocation.getThis();
+        if (target == null) {
+            return invocation.proceed();
+        }
+        MethodMetrics methodMetrics = metrics().get(target.getClass(), invocation.getMethod());
+        SqlStatementCounter sqlCounter = counter();
+
+        long sqlBefore = sqlCounter.executedOnThread();
+        long start = System.nanoTime();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            methodMetrics.record(System.nanoTime() - start, result,
+                    sqlCounter.executedOnThread() - sqlBefore, failed);
+        }
+    }
+
+    // 어드바이저는 다른 빈보다 먼저 만들어지므로 MeterRegistry 등은 처음 호출될 때 가져온다
+    private RepositoryMetrics metrics() {
+        RepositoryMetrics current = metrics;
+        if (current == null) {
+            current = metricsProvider.getObject();
+            metrics = current;
+        }
+        return current;
+    }
+
+    private SqlStatementCounter counter() {
+        SqlStatementCounter current = counter;
+        if (current == null) {
+            current = counterProvider.getObject();
+            counter = current;
+        }
+        return current;
+    }
+}
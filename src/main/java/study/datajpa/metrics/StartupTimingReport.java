@@ -0,0 +1,96 @@
+package study.datajpa.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 기동 시간을 단계별로 나눠서 로그로 남긴다.
+ * 단계별 기록은 DataJpaApplication.main 에서 켜는 BufferingApplicationStartup 이 있어야 나온다. (테스트에서는 합계만)
+ * 같은 기록은 actuator /actuator/startup 으로도 볼 수 있다.
+ * deferred 부트스트랩은 초기화 일부를 첫 요청으로 미루므로, 첫 요청이 끝난 시각도 함께 남긴다.
+ */
+@Slf4j
+@Component
+public class StartupTimingReport {
+
+    private final AtomicBoolean firstRequestHandled = new AtomicBoolean();
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)    // 초기 데이터 적재보다 먼저
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup)) {
+            log.info("startup : ready {} ms after JVM start", uptime);
+            return;
+        }
+
+        Map<String, Duration> phases = phases(((BufferingApplicationStartup) startup).getBufferedTimeline());
+        StringBuilder report = new StringBuilder("startup : ready ").append(uptime).append(" ms after JVM start");
+        phases.forEach((phase, duration) -> report.append(String.format("%n  %-32s %6d ms", phase, duration.toMillis())));
+        log.info(report.toString());
+    }
+
+    // DispatcherServlet 이 요청을 끝낼 때마다 발행한다. 첫 번째만 본다.
+    @EventListener
+    public void firstRequest(ServletRequestHandledEvent event) {
+        if (firstRequestHandled.compareAndSet(false, true)) {
+            log.info("startup : first request {} {} handled {} ms after JVM start (processing {} ms, status {})",
+                    event.getMethod(), event.getRequestUrl(), ManagementFactory.getRuntimeMXBean().getUptime(),
+                    event.getProcessingTimeMillis(), event.getStatusCode());
+        }
+    }
+
+    private Map<String, Duration> phases(StartupTimeline timeline) {
+        Map<String, Duration> phases = new LinkedHashMap<>();
+        phases.put("environment", Duration.ZERO);
+        phases.put("context refresh", Duration.ZERO);
+        phases.put("  bean definitions (scanning)", Duration.ZERO);
+        phases.put("  entityManagerFactory", Duration.ZERO);
+        phases.put("  repositories", Duration.ZERO);
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            String phase = phase(event.getStartupStep());
+            if (phase != null) {
+                phases.merge(phase, event.getDuration(), Duration::plus);
+            }
+        }
+        return phases;
+    }
+
+    private String phase(StartupStep step) {
+        switch (step.getName()) {
+            case "spring.boot.application.environment-prepared":
+                return "environment";
+            case "spring.context.refresh":
+                return "context refresh";
+            case "spring.context.beans.post-process":
+                return "  bean definitions (scanning)";
+            case "spring.data.repository.init":
+                return "  repositories";
+            case "spring.beans.instantiate":
+                for (StartupStep.Tag tag : step.getTags()) {
+                    if ("beanName".equals(tag.getKey()) && "entityManagerFactory".equals(tag.getValue())) {
+                        return "  entityManagerFactory";
+                    }
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package study.datajpa.repository;
+
+// 클라이언트가 보낸 정렬/커서가 잘못된 경우. (컨트롤러에서 400 으로 응답한다)
+// IllegalArgumentException 을 쓰면 리포지토리 예외 변환에서 InvalidDataAccessApiUsageException 으로 바뀌어 버린다.
+public class InvalidPageRequestException extends RuntimeException {
+
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidPageRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,114 @@
+package study.datajpa.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import study.datajpa.audit.AuditClock;
+import study.datajpa.dto.MemberChangeDto;
+import study.datajpa.dto.MemberChanges;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 회원 변경분 동기화 조회.
+ * 마지막으로 받은 (수정 시각, id) 다음부터 바뀐 회원과 삭제 기록(member_tombstone)을 키셋으로 읽는다.
+ * 두 테이블 모두 (시각, id) 인덱스를 타므로 전체 테이블이 아니라 바뀐 행 수만큼만 읽는다.
+ *
+ * 수정 시각은 flush 때 찍히고 커밋은 그 뒤라서, 방금 찍힌 시각까지 내려주면 아직 커밋 안 된 더 이른 시각의 행을 건너뛸 수 있다.
+ * 그래서 settle-time 보다 오래된 변경만 내려준다. settle-time 은 가장 긴 쓰기 트랜잭션 + auditing max-skew 보다 길어야 한다.
+ */
+@Repository
+public class MemberChangeJdbcRepository {
+
+    private static final String CHANGED =
+            "select m.member_id, m.username, m.age, t.name, m.last_modified_date" +
+            " from member m left join team t on t.team_id = m.team_id" +
+            " where (m.last_modified_date > ? or (m.last_modified_date = ? and m.member_id > ?))" +
+            " and m.last_modified_date < ?" +
+            " order by m.last_modified_date, m.member_id limit ?";
+    private static final String DELETED =
+            "select d.member_id, d.deleted_date from member_tombstone d" +
+            " where (d.deleted_date > ? or (d.deleted_date = ? and d.member_id > ?))" +
+            " and d.deleted_date < ?" +
+            " order by d.deleted_date, d.member_id limit ?";
+
+    private static final RowMapper<MemberChangeDto> CHANGE = (rs, rowNum) -> new MemberChangeDto(
+            rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getString(4), rs.getTimestamp(5).toLocalDateTime(), false);
+    private static final RowMapper<MemberChangeDto> TOMBSTONE = (rs, rowNum) -> new MemberChangeDto(
+            rs.getLong(1), null, null, null, rs.getTimestamp(2).toLocalDateTime(), true);
+
+    private static final Comparator<MemberChangeDto> ORDER =
+            Comparator.comparing(MemberChangeDto::getChangedAt).thenComparing(MemberChangeDto::getId);
+
+    // 첫 동기화의 시작점
+    private static final LocalDateTime START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditClock auditClock;
+    private final Duration settleTime;
+
+    public MemberChangeJdbcRepository(JdbcTemplate jdbcTemplate,
+                                      AuditClock auditClock,
+                                      @Value("${datajpa.sync.settle-time:5s}") Duration settleTime) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditClock = auditClock;
+        this.settleTime = settleTime;
+    }
+
+    /**
+     * @param cursor 이전 응답의 cursor. 처음이면 null (전체를 변경분으로 받는다)
+     */
+    public MemberChanges findChanges(String cursor, int size) {
+        LocalDateTime since = START;
+        long lastId = 0;
+        if (cursor != null) {
+            try {
+                String[] tokens = decode(cursor);
+                since = LocalDateTime.parse(tokens[0]);
+                lastId = Long.parseLong(tokens[1]);
+            } catch (IllegalArgumentException | DateTimeParseException e) {  // NumberFormatException 포함
+                throw new InvalidPageRequestException("잘못된 커서: " + cursor, e);
+            }
+        }
+        Timestamp from = Timestamp.valueOf(since);
+        Timestamp until = Timestamp.valueOf(auditClock.now().minus(settleTime));
+
+        // 각 테이블에서 size + 1 건씩 읽어서 (시각, id) 순으로 합친다
+        List<MemberChangeDto> changes = new ArrayList<>(
+                jdbcTemplate.query(CHANGED, CHANGE, from, from, lastId, until, size + 1));
+        changes.addAll(jdbcTemplate.query(DELETED, TOMBSTONE, from, from, lastId, until, size + 1));
+        changes.sort(ORDER);
+
+        boolean hasMore = changes.size() > size;
+        if (hasMore) {
+            changes = new ArrayList<>(changes.subList(0, size));
+        }
+        if (changes.isEmpty()) {
+            return new MemberChanges(changes, encode(since, lastId), false);
+        }
+        MemberChangeDto last = changes.get(changes.size() - 1);
+        return new MemberChanges(changes, encode(last.getChangedAt(), last.getId()), hasMore);
+    }
+
+    private static String encode(LocalDateTime time, long id) {
+        String value = time + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String cursor) {
+        String[] tokens = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+        if (tokens.length != 2) {
+            throw new InvalidPageRequestException("잘못된 커서: " + cursor);
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,93 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import study.datajpa.cache.CountCache;
+import study.datajpa.dto.MemberDto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MemberDto 읽기 전용 JDBC 조회.
+ * JPQL 파싱, 쿼리 변환, 엔티티/생성자 리플렉션 없이 고정 SQL 을 바로 실행하고 RowMapper 로 만든다.
+ * SQL 문자열이 매번 같으므로 드라이버의 prepared statement 캐시를 그대로 탄다. (정렬 조합별로 하나)
+ * JPA 를 거치지 않아서 auto flush 가 없다. 같은 트랜잭션에서 바꾼 엔티티는 flush 한 뒤에 보인다.
+ */
+@Repository
+public class MemberDtoJdbcRepository {
+
+    private static final String SELECT_WITH_TEAM =
+            "select m.member_id, m.username, t.name from member m join team t on t.team_id = m.team_id";
+    private static final String SELECT_PAGE =
+            "select m.member_id, m.username, t.name from member m left join team t on t.team_id = m.team_id";
+    private static final String COUNT = "select count(*) from member";
+
+    // 정렬은 허용한 속성만 컬럼으로 바꿔서 붙인다 (SQL 주입 방지)
+    // 그 밖의 속성은 MemberRepositoryImpl 이 JPQL 경로로 보낸다 (supports)
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "m.member_id",
+            "username", "m.username",
+            "age", "m.age",
+            "team.name", "t.name",
+            "createdDate", "m.created_date",
+            "lastModifiedDate", "m.last_modified_date"
+    );
+
+    private static final RowMapper<MemberDto> MEMBER_DTO =
+            (rs, rowNum) -> new MemberDto(rs.getLong(1), rs.getString(2), rs.getString(3));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CountCache countCache;
+
+    public MemberDtoJdbcRepository(JdbcTemplate jdbcTemplate, CountCache countCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.countCache = countCache;
+    }
+
+    // MemberRepository.findMemberDto 와 같은 결과 (팀이 있는 회원만)
+    public List<MemberDto> findMemberDto() {
+        return jdbcTemplate.query(SELECT_WITH_TEAM, MEMBER_DTO);
+    }
+
+    // 팀이 없는 회원도 포함 (/members 목록과 같은 결과)
+    public Page<MemberDto> findMemberDtoPage(Pageable pageable) {
+        String sql = SELECT_PAGE + orderBy(pageable.getSort()) + " limit ? offset ?";
+        List<MemberDto> content = jdbcTemplate.query(sql, MEMBER_DTO, pageable.getPageSize(), pageable.getOffset());
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countCache.get("Member.count", () -> jdbcTemplate.queryForObject(COUNT, Long.class)));
+    }
+
+    // 이 정렬을 SQL 로 바꿀 수 있는지
+    public static boolean supports(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!SORT_COLUMNS.containsKey(order.getProperty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+        StringBuilder orderBy = new StringBuilder(" order by ");
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("지원하지 않는 정렬 속성: " + order.getProperty());
+            }
+            if (orderBy.length() > " order by ".length()) {
+                orderBy.append(", ");
+            }
+            orderBy.append(column).append(order.isAscending() ? " asc" : " desc");
+        }
+        return orderBy.toString();
+    }
+}
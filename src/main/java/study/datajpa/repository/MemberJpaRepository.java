@@ -2,6 +2,8 @@ package study.datajpa.repository;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
+import study.datajpa.audit.AuditClock;
+import study.datajpa.cache.CountCache;
 import study.datajpa.entity.Member;
 
 import javax.persistence.EntityManager;
@@ -13,6 +15,8 @@ import java.util.Optional;
 public class MemberJpaRepository {
 
     private final EntityManager em;
+    private final CountCache countCache;
+    private final AuditClock auditClock;
 
     public Member save(Member member) {
         em.persist(member);
@@ -66,17 +70,43 @@ public class MemberJpaRepository {
                 .getResultList();
     }
 
-    public Long totalCount(int age) {
-        return em.createQuery("select count(m) from Member m where m.age >= :age", Long.class)
+    // 키셋(seek) 페이징 : 마지막으로 본 (username, id) 다음부터 limit 건
+    // offset 처럼 앞의 행을 읽고 버리지 않으므로 몇 번째 페이지든 비용이 같다.
+    // 첫 페이지는 lastUsername, lastId 를 null 로 넘긴다.
+    public List<Member> findByPageAfter(int age, String lastUsername, Long lastId, int limit) {
+        if (lastUsername == null || lastId == null) {
+            return em.createQuery("select m from Member m where m.age >= :age order by m.username, m.id", Member.class)
+                    .setParameter("age", age)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        // username >= :username 은 중복 조건이지만 or 만으로는 인덱스 범위를 못 잡는 DB 를 위해 둔다
+        return em.createQuery("select m from Member m where m.age >= :age and m.username >= :username" +
+                        " and (m.username > :username or (m.username = :username and m.id > :id))" +
+                        " order by m.username, m.id", Member.class)
                 .setParameter("age", age)
-                .getSingleResult();
+                .setParameter("username", lastUsername)
+                .setParameter("id", lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // count 는 페이지보다 비싸므로 짧은 시간 캐시한다. (쓰기, 벌크 연산 시 무효화)
+    public Long totalCount(int age) {
+        return countCache.get("Member.totalCount:" + age, () ->
+                em.createQuery("select count(m) from Member m where m.age >= :age", Long.class)
+                        .setParameter("age", age)
+                        .getSingleResult());
     }
 
     // 벌크성 수정 쿼리 
     // 로직을 짜는 거보다 디비에서 그냥 업데이트 치는게 낫다
+    // 엔티티 리스너를 거치지 않으므로 수정 시각과 버전은 직접 올린다
     public int bulkAgePlus(int age) {
-        return em.createQuery("update Member m set m.age = m.age + 1 where m.age >= :age")
+        return em.createQuery("update Member m set m.age = m.age + 1, m.version = m.version + 1, m.lastModifiedDate = :now" +
+                        " where m.age >= :age")
                 .setParameter("age", age)
+                .setParameter("now", auditClock.now())
                 .executeUpdate();
 
     }
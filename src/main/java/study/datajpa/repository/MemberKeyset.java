@@ -0,0 +1,131 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Sort;
+import study.datajpa.entity.Member;
+
+import javax.persistence.TypedQuery;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Member 키셋(seek) 페이징 조건 생성기.
+ * offset 으로 앞 페이지를 버리는 대신 "마지막으로 본 행의 정렬 키 다음부터" 조회한다.
+ * 정렬 키의 마지막은 항상 id 라서 순서가 유일하게 정해진다.
+ * 정렬 키가 null 인 행은 키셋 비교에서 빠지므로 키셋 정렬에는 not null 컬럼을 쓴다.
+ */
+class MemberKeyset {
+
+    private static final Map<String, Function<Member, Object>> KEYS = Map.of(
+            "id", Member::getId,
+            "username", Member::getUsername,
+            "age", Member::getAge
+    );
+
+    private static final Map<String, Function<String, Object>> PARSERS = Map.of(
+            "id", Long::valueOf,
+            "username", value -> value,
+            "age", Integer::valueOf
+    );
+
+    private static final String NULL_VALUE = "~";
+
+    private final List<Sort.Order> orders = new ArrayList<>();
+
+    MemberKeyset(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!KEYS.containsKey(order.getProperty())) {
+                throw new InvalidPageRequestException("키셋 페이징을 지원하지 않는 정렬 속성: " + order.getProperty());
+            }
+            orders.add(order);
+            if ("id".equals(order.getProperty())) {
+                return;     // id 는 유일하므로 뒤의 정렬 조건은 의미가 없다
+            }
+        }
+        orders.add(Sort.Order.asc("id"));
+    }
+
+    /**
+     * (k0 > :k0) or (k0 = :k0 and k1 > :k1) or ... 형태의 seek 조건
+     * or 조건만으로는 인덱스 범위를 잡지 못하는 DB(H2 등)가 있어서 첫 정렬 키의 범위(k0 >= :k0)를 앞에 한 번 더 건다.
+     */
+    String where(String alias) {
+        StringBuilder where = new StringBuilder("(");
+        if (orders.size() > 1) {
+            where.append(path(alias, 0)).append(orders.get(0).isAscending() ? " >= " : " <= ").append(":k0 and ");
+        }
+        where.append("(");
+        for (int i = 0; i < orders.size(); i++) {
+            if (i > 0) {
+                where.append(" or ");
+            }
+            where.append("(");
+            for (int j = 0; j < i; j++) {
+                where.append(path(alias, j)).append(" = :k").append(j).append(" and ");
+            }
+            String op = orders.get(i).isAscending() ? " > " : " < ";
+            where.append(path(alias, i)).append(op).append(":k").append(i).append(")");
+        }
+        return where.append("))").toString();
+    }
+
+    String orderBy(String alias) {
+        StringBuilder orderBy = new StringBuilder(" order by ");
+        for (int i = 0; i < orders.size(); i++) {
+            if (i > 0) {
+                orderBy.append(", ");
+            }
+            orderBy.append(path(alias, i)).append(orders.get(i).isAscending() ? " asc" : " desc");
+        }
+        return orderBy.toString();
+    }
+
+    void bind(TypedQuery<?> query, String cursor) {
+        String[] tokens = cursor.split("\\.", -1);
+        if (tokens.length != orders.size()) {
+            throw new InvalidPageRequestException("정렬 조건과 맞지 않는 커서: " + cursor);
+        }
+        for (int i = 0; i < tokens.length; i++) {
+            query.setParameter("k" + i, decode(orders.get(i).getProperty(), tokens[i]));
+        }
+    }
+
+    String cursorOf(Member last) {
+        StringBuilder cursor = new StringBuilder();
+        for (int i = 0; i < orders.size(); i++) {
+            if (i > 0) {
+                cursor.append('.');
+            }
+            Object value = KEYS.get(orders.get(i).getProperty()).apply(last);
+            cursor.append(encode(value));
+        }
+        return cursor.toString();
+    }
+
+    private String path(String alias, int index) {
+        return alias + "." + orders.get(index).getProperty();
+    }
+
+    private static String encode(Object value) {
+        if (value == null) {
+            return NULL_VALUE;
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(value.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Object decode(String property, String token) {
+        if (NULL_VALUE.equals(token)) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            return PARSERS.get(property).apply(value);
+        } catch (IllegalArgumentException e) {  // NumberFormatException 포함
+            throw new InvalidPageRequestException("잘못된 커서 값: " + token, e);
+        }
+    }
+}
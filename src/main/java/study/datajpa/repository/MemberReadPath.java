@@ -0,0 +1,7 @@
+package study.datajpa.repository;
+
+// MemberDto 조회 경로 : 호출마다 고른다.
+public enum MemberReadPath {
+    JPQL,   // JPQL new 연산자 (하이버네이트 쿼리 변환, 생성자 리플렉션)
+    JDBC    // 고정 SQL + 직접 작성한 RowMapper (MemberDtoJdbcRepository)
+}
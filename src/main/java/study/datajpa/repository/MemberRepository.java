@@ -2,10 +2,12 @@ package study.datajpa.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSummary;
 import study.datajpa.entity.Member;
 
 import javax.persistence.LockModeType;
@@ -31,8 +33,14 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, m.team.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
-    @Query("select m from Member m where m.username in :names")
-    List<Member> findByNames(@Param("names") List<String> names);
+    // 스칼라, 프로젝션 단건 조회 : 엔티티를 만들지 않으므로 영속성 컨텍스트에 올라가지 않는다. (dirty check 스냅샷도 없음)
+    @Query("select m.username from Member m where m.id = :id")
+    Optional<String> findUsernameById(@Param("id") Long id);
+
+    Optional<MemberSummary> findSummaryById(Long id);
+
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t where m.id = :id")
+    Optional<MemberDto> findDtoById(@Param("id") Long id);
 
     // 반환타입을 유연하게 사용할 수 있다.
     List<Member> findListByUsername(String username);   // 컬렉션 조회
@@ -43,12 +51,34 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
 
     Page<Member> findByAge(int age, Pageable pageable);
 
+    // Slice 는 count 쿼리 없이 size + 1 건을 읽어서 다음 페이지 여부만 알려준다.
+    Slice<Member> findSliceByAge(int age, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"team"})
+    @Query("select m from Member m")
+    Slice<Member> findSliceBy(Pageable pageable);
+
     // 이게 없으면 다른 쿼리들 처럼 ResultList 나 SingleResult 로 실행시킨다
     // @Modifying 이 있다면 executeUpdate 를 사용
+    // 벌크 연산은 엔티티 리스너를 거치지 않으므로 수정 시각을 직접 넣는다. (변경분 동기화 : MemberChangeJdbcRepository)
+    // @Version 도 직접 올려야 이미 읽어 둔 엔티티의 수정이 충돌로 잡힌다. (OptimisticUpdater)
     @Modifying(clearAutomatically = true)
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+    @Query("update Member m set m.age = m.age + 1, m.version = m.version + 1, m.lastModifiedDate = :#{@auditClock.now()}" +
+            " where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
 
+    // 청크 단위 벌크 수정 : id 구간 (fromId, toId] 만 수정해서 락을 짧게 잡는다. (MemberAgeChunkUpdater)
+    @Modifying(clearAutomatically = true)
+    @Query("update Member m set m.age = m.age + 1, m.version = m.version + 1, m.lastModifiedDate = :#{@auditClock.now()}" +
+            " where m.age >= :age and m.id > :fromId and m.id <= :toId")
+    int bulkAgePlusInRange(@Param("age") int age, @Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query("select min(m.id) from Member m")
+    Long findMinId();
+
+    @Query("select max(m.id) from Member m")
+    Long findMaxId();
+
     @Query("select m from Member m left join fetch m.team")
     List<Member> findMemberFetchJoin();
 
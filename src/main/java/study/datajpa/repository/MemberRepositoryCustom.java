@@ -1,9 +1,38 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.datajpa.dto.CursorPage;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    // username in (...) : 목록이 길면 나눠서 조회한다. (InListQueryExecutor)
+    List<Member> findByNames(List<String> names);
+
+    // 키셋 페이징 : pageable 의 page 번호는 무시하고 size, sort 만 사용한다.
+    CursorPage<Member> findAllByCursor(String cursor, Pageable pageable);
+
+    // total count 를 CountCache 에서 가져온다. 마지막 페이지가 확실하면 count 쿼리 자체를 생략한다.
+    Page<Member> findAllWithCachedCount(Pageable pageable);
+
+    Page<Member> findByAgeWithCachedCount(int age, Pageable pageable);
+
+    // MemberDto 조회 : path 로 JPQL / JDBC 경로를 고른다. 결과 모양은 같다.
+    List<MemberDto> findMemberDto(MemberReadPath path);
+
+    Page<MemberDto> findMemberDtoPage(Pageable pageable, MemberReadPath path);
+
+    // 대량 등록 : JDBC 배치로 insert 하고 datajpa.batch-insert.flush-interval 마다 flush, clear 한다.
+    // clear 하므로 호출하는 쪽의 영속성 컨텍스트도 비워진다.
+    long saveAllBatched(Iterable<? extends Member> members);
+
+    // 전체 회원을 한 번에 올리지 않고 커서(ScrollableResults)로 흘려보낸다.
+    // 트랜잭션 안에서 사용하고 다 쓰면 반드시 close 한다. (try-with-resources)
+    Stream<MemberDto> streamMemberDto();
 }
@@ -1,19 +1,180 @@
 package study.datajpa.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.cache.CountCache;
+import study.datajpa.dto.CursorPage;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.sql.InListQueryExecutor;
 
 import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
     private final EntityManager em;
+    private final CountCache countCache;
+    private final InListQueryExecutor inListQueryExecutor;
+    private final MemberDtoJdbcRepository memberDtoJdbcRepository;
+
+    // JDBC 배치 크기(hibernate.jdbc.batch_size)와 따로 둔다. 0 이하면 중간에 flush 하지 않는다.
+    @Value("${datajpa.batch-insert.flush-interval:100}")
+    private int flushInterval;
+
+    @Value("${datajpa.export.fetch-size:1000}")
+    private int exportFetchSize;
 
     @Override
+    @Transactional(readOnly = true)
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m", Member.class)
                 .getResultList();
     }
+
+    @Override
+    public List<Member> findByNames(List<String> names) {
+        return inListQueryExecutor.query(names, chunk ->
+                em.createQuery("select m from Member m where m.username in :names", Member.class)
+                        .setParameter("names", chunk)
+                        .getResultList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Member> findAllByCursor(String cursor, Pageable pageable) {
+        MemberKeyset keyset = new MemberKeyset(pageable.getSort());
+        boolean first = cursor == null || cursor.isEmpty();
+
+        String jpql = "select m from Member m left join fetch m.team"
+                + (first ? "" : " where " + keyset.where("m"))
+                + keyset.orderBy("m");
+        TypedQuery<Member> query = em.createQuery(jpql, Member.class);
+        if (!first) {
+            keyset.bind(query, cursor);
+        }
+
+        // 한 건 더 읽어서 다음 페이지가 있는지 판단한다 (count 쿼리 없음)
+        int size = pageable.getPageSize();
+        List<Member> content = query.setMaxResults(size + 1).getResultList();
+        if (content.size() <= size) {
+            return new CursorPage<>(content, null);
+        }
+        content = content.subList(0, size);
+        return new CursorPage<>(content, keyset.cursorOf(content.get(size - 1)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Member> findAllWithCachedCount(Pageable pageable) {
+        // MemberDto 로 바꿀 때 team 을 쓰므로 같이 가져온다. (ManyToOne 이라 페이징에 문제 없음)
+        String jpql = QueryUtils.applySorting("select m from Member m left join fetch m.team", pageable.getSort(), "m");
+        List<Member> content = em.createQuery(jpql, Member.class)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        // 첫 페이지가 size 보다 적게 오거나 마지막 페이지인 게 확실하면 count 를 호출하지 않는다.
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countCache.get("Member.count", () ->
+                        em.createQuery("select count(m) from Member m", Long.class)
+                                .getSingleResult()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Member> findByAgeWithCachedCount(int age, Pageable pageable) {
+        String jpql = QueryUtils.applySorting("select m from Member m where m.age = :age", pageable.getSort(), "m");
+        List<Member> content = em.createQuery(jpql, Member.class)
+                .setParameter("age", age)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countCache.get("Member.countByAge:" + age, () ->
+                        em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+                                .setParameter("age", age)
+                                .getSingleResult()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MemberDto> findMemberDto(MemberReadPath path) {
+        if (path == MemberReadPath.JDBC) {
+            flushBeforeJdbc();
+            return memberDtoJdbcRepository.findMemberDto();
+        }
+        return em.createQuery("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t", MemberDto.class)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<MemberDto> findMemberDtoPage(Pageable pageable, MemberReadPath path) {
+        // JDBC 경로가 모르는 정렬 속성은 JPQL 로 처리한다
+        if (path == MemberReadPath.JDBC && MemberDtoJdbcRepository.supports(pageable.getSort())) {
+            flushBeforeJdbc();
+            return memberDtoJdbcRepository.findMemberDtoPage(pageable);
+        }
+        String jpql = QueryUtils.applySorting(
+                "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+                pageable.getSort(), "m");
+        List<MemberDto> content = em.createQuery(jpql, MemberDto.class)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countCache.get("Member.count", () ->
+                        em.createQuery("select count(m) from Member m", Long.class)
+                                .getSingleResult()));
+    }
+
+    // JPQL 이라면 auto flush 로 보였을 변경을 JDBC 조회에서도 보이게 한다
+    private void flushBeforeJdbc() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            em.flush();
+        }
+    }
+
+    @Override
+    @Transactional
+    public long saveAllBatched(Iterable<? extends Member> members) {
+        long count = 0;
+        for (Member member : members) {
+            em.persist(member);
+            count++;
+            if (flushInterval > 0 && count % flushInterval == 0) {
+                // 모인 insert 를 보내고 1차 캐시를 비워서 메모리가 일정하게 유지되도록 한다
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
+
+    @Override
+    public Stream<MemberDto> streamMemberDto() {
+        // DTO 로 바로 조회해서 영속성 컨텍스트에 엔티티가 쌓이지 않는다.
+        // fetch size 만큼씩 드라이버가 가져오므로 힙 사용량이 행 수와 무관하다.
+        return em.createQuery("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name)" +
+                        " from Member m left join m.team t", MemberDto.class)
+                .setHint(HINT_FETCH_SIZE, exportFetchSize)
+                .setHint(HINT_READONLY, true)
+                .getResultStream();
+    }
 }
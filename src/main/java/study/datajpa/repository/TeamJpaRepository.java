@@ -39,4 +39,13 @@ public class TeamJpaRepository {
                 .getSingleResult();
         return Optional.ofNullable(team);
     }
+
+    // 팀 페이지 조회. members 를 꺼내면 default_batch_fetch_size 로 팀 100개씩 묶어서 초기화된다.
+    // 컬렉션 페치 조인은 페이징이 메모리에서 일어나므로 쓰지 않는다.
+    public List<Team> findPage(int offset, int limit) {
+        return em.createQuery("select t from Team t order by t.id", Team.class)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
 }
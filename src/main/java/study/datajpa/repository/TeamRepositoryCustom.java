@@ -0,0 +1,11 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.datajpa.dto.TeamRosterDto;
+
+public interface TeamRepositoryCustom {
+
+    // 팀 페이지 + 팀별 회원(최대 memberLimit 명)을 팀 수와 상관없이 고정된 쿼리 수로 가져온다.
+    Page<TeamRosterDto> findRoster(Pageable pageable, int memberLimit);
+}
@@ -0,0 +1,78 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.TeamRosterDto;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+
+    private final EntityManager em;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TeamRosterDto> findRoster(Pageable pageable, int memberLimit) {
+        // 1. 팀 페이지
+        String jpql = QueryUtils.applySorting("select t from Team t", pageable.getSort(), "t");
+        List<Team> teams = em.createQuery(jpql, Team.class)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        if (teams.isEmpty()) {
+            return PageableExecutionUtils.getPage(List.of(), pageable, this::countTeams);
+        }
+        List<Long> teamIds = teams.stream().map(Team::getId).collect(Collectors.toList());
+
+        // 2. 팀별 인원수
+        Map<Long, Long> memberCounts = new HashMap<>();
+        em.createQuery("select m.team.id, count(m) from Member m where m.team.id in :teamIds group by m.team.id", Object[].class)
+                .setParameter("teamIds", teamIds)
+                .getResultList()
+                .forEach(row -> memberCounts.put((Long) row[0], (Long) row[1]));
+
+        // 3. 팀별 앞에서 memberLimit 명 : 윈도우 함수로 잘라서 가져온다
+        Map<Long, List<MemberDto>> membersByTeam = new HashMap<>();
+        Map<Long, String> teamNames = teams.stream().collect(Collectors.toMap(Team::getId, Team::getName));
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = em.createNativeQuery(
+                        "select member_id, username, team_id from (" +
+                        " select m.member_id, m.username, m.team_id," +
+                        " row_number() over (partition by m.team_id order by m.member_id) as rn" +
+                        " from member m where m.team_id in (:teamIds)) ranked" +
+                        " where rn <= :memberLimit" +
+                        " order by team_id, member_id")
+                .setParameter("teamIds", teamIds)
+                .setParameter("memberLimit", memberLimit)
+                .getResultList();
+        for (Object[] row : rows) {
+            Long teamId = ((Number) row[2]).longValue();
+            MemberDto member = new MemberDto(((Number) row[0]).longValue(), (String) row[1], teamNames.get(teamId));
+            membersByTeam.computeIfAbsent(teamId, id -> new ArrayList<>()).add(member);
+        }
+
+        List<TeamRosterDto> content = teams.stream()
+                .map(team -> new TeamRosterDto(team.getId(), team.getName(),
+                        memberCounts.getOrDefault(team.getId(), 0L),
+                        membersByTeam.getOrDefault(team.getId(), List.of())))
+                .collect(Collectors.toList());
+        return PageableExecutionUtils.getPage(content, pageable, this::countTeams);
+    }
+
+    private long countTeams() {
+        return em.createQuery("select count(t) from Team t", Long.class)
+                .getSingleResult();
+    }
+}
@@ -0,0 +1,20 @@
+package study.datajpa.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+// 청크 단위 작업의 진행 상황. lastCompletedId 까지는 커밋되었다.
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class ChunkProgress {
+    private final long lastCompletedId;
+    private final long maxId;
+    private final long updated;
+    private final int chunks;
+
+    public boolean isDone() {
+        return lastCompletedId >= maxId;
+    }
+}
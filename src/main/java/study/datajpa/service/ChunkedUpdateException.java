@@ -0,0 +1,15 @@
+package study.datajpa.service;
+
+import lombok.Getter;
+
+// 청크 작업 중 실패. progress.lastCompletedId 를 resumeAfterId 로 넘겨 이어서 실행할 수 있다.
+@Getter
+public class ChunkedUpdateException extends RuntimeException {
+
+    private final ChunkProgress progress;
+
+    public ChunkedUpdateException(ChunkProgress progress, Throwable cause) {
+        super("청크 수정 실패. lastCompletedId=" + progress.getLastCompletedId(), cause);
+        this.progress = progress;
+    }
+}
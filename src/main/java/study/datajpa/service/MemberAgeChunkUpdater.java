@@ -0,0 +1,94 @@
+package study.datajpa.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import study.datajpa.repository.MemberRepository;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * bulkAgePlus 를 member_id 구간별로 나눠 실행한다.
+ * 구간마다 짧은 트랜잭션으로 커밋하므로 한 번의 update 처럼 테이블 전체에 락을 오래 잡지 않는다.
+ * 각 구간은 @Modifying(clearAutomatically = true) 로 실행되어 해당 트랜잭션의 영속성 컨텍스트를 비운다.
+ * 구간마다 따로 커밋하므로 바깥 트랜잭션 안에서는 호출할 수 없다.
+ */
+@Slf4j
+@Service
+public class MemberAgeChunkUpdater {
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate chunkTransaction;
+    private final int batchSize;
+    private final Duration pause;
+
+    public MemberAgeChunkUpdater(MemberRepository memberRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${datajpa.chunked-update.batch-size:1000}") int batchSize,
+                                 @Value("${datajpa.chunked-update.pause:0ms}") Duration pause) {
+        this.memberRepository = memberRepository;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.pause = pause;
+    }
+
+    public ChunkProgress bulkAgePlus(int age) {
+        return bulkAgePlus(age, 0, progress -> { });
+    }
+
+    /**
+     * @param resumeAfterId 이 id 까지는 이미 처리된 것으로 보고 건너뛴다. 처음부터는 0
+     * @param listener      구간 하나가 커밋될 때마다 호출된다
+     */
+    public ChunkProgress bulkAgePlus(int age, long resumeAfterId, Consumer<ChunkProgress> listener) {
+        Assert.state(!TransactionSynchronizationManager.isActualTransactionActive(),
+                "청크 수정은 구간마다 커밋하므로 트랜잭션 밖에서 호출해야 합니다.");
+
+        Long minId = memberRepository.findMinId();
+        Long maxId = memberRepository.findMaxId();
+        if (minId == null) {
+            return new ChunkProgress(resumeAfterId, resumeAfterId, 0, 0);
+        }
+
+        long from = Math.max(resumeAfterId, minId - 1);
+        long updated = 0;
+        int chunks = 0;
+        ChunkProgress progress = new ChunkProgress(from, maxId, updated, chunks);
+        while (from < maxId) {
+            long fromId = from;
+            long toId = Math.min(from + batchSize, maxId);
+            try {
+                Integer count = chunkTransaction.execute(status -> memberRepository.bulkAgePlusInRange(age, fromId, toId));
+                updated += count == null ? 0 : count;
+            } catch (RuntimeException e) {
+                throw new ChunkedUpdateException(progress, e);
+            }
+
+            from = toId;
+            progress = new ChunkProgress(from, maxId, updated, ++chunks);
+            listener.accept(progress);
+            sleepBetweenChunks(progress);
+        }
+        log.info("bulkAgePlus 청크 수정 완료. {}", progress);
+        return progress;
+    }
+
+    private void sleepBetweenChunks(ChunkProgress progress) {
+        if (pause.isZero() || progress.isDone()) {
+            return;
+        }
+        try {
+            Thread.sleep(pause.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChunkedUpdateException(progress, e);
+        }
+    }
+}
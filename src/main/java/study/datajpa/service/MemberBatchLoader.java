@@ -0,0 +1,161 @@
+package study.datajpa.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.concurrent.CustomizableThreadFactory;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findById 묶음 처리기 (DataLoader 방식)
+ * 짧은 시간(window) 동안 들어온 id 조회를 모아서 where id in (...) 쿼리 한 번으로 처리한다.
+ * window 가 지나거나 max-batch-size 만큼 모이면 바로 보낸다.
+ * 결과 엔티티는 별도 트랜잭션에서 조회되므로 준영속 상태다. (지연 로딩 불가)
+ */
+@Slf4j
+@Component
+public class MemberBatchLoader implements DisposableBean {
+
+    private final MemberRepository memberRepository;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("member-loader-timer-"));
+    private final ExecutorService workers;
+
+    private final DistributionSummary batchSize;
+    private final Timer waitTime;
+    private final Counter queries;
+
+    private final Object lock = new Object();
+    private List<Request> pending = new ArrayList<>();     // lock 으로 보호
+    private ScheduledFuture<?> scheduled;                   // lock 으로 보호
+
+    public MemberBatchLoader(MemberRepository memberRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${datajpa.batch-loader.window:2ms}") Duration window,
+                             @Value("${datajpa.batch-loader.max-batch-size:100}") int maxBatchSize,
+                             @Value("${datajpa.batch-loader.threads:4}") int threads) {
+        this.memberRepository = memberRepository;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.workers = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("member-loader-"));
+
+        this.batchSize = DistributionSummary.builder("member.loader.batch.size")
+                .description("한 번의 in 쿼리로 처리한 id 수")
+                .register(meterRegistry);
+        this.waitTime = Timer.builder("member.loader.wait")
+                .description("조회 요청이 쿼리로 나가기까지 기다린 시간")
+                .register(meterRegistry);
+        this.queries = Counter.builder("member.loader.queries")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<Optional<Member>> load(Long id) {
+        Request request = new Request(id);
+        List<Request> ready = null;
+        synchronized (lock) {
+            pending.add(request);
+            if (pending.size() >= maxBatchSize) {
+                ready = drain();
+            } else if (scheduled == null) {
+                scheduled = scheduler.schedule(this::dispatchPending, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (ready != null) {
+            dispatch(ready);
+        }
+        return request.future;
+    }
+
+    private void dispatchPending() {
+        List<Request> ready;
+        synchronized (lock) {
+            scheduled = null;
+            if (pending.isEmpty()) {
+                return;
+            }
+            ready = drain();
+        }
+        dispatch(ready);
+    }
+
+    // lock 안에서 호출
+    private List<Request> drain() {
+        List<Request> drained = pending;
+        pending = new ArrayList<>();
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+        return drained;
+    }
+
+    private void dispatch(List<Request> requests) {
+        workers.execute(() -> resolve(requests));
+    }
+
+    private void resolve(List<Request> requests) {
+        long now = System.nanoTime();
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Request request : requests) {
+            waitTime.record(now - request.enqueuedAt, TimeUnit.NANOSECONDS);
+            ids.add(request.id);
+        }
+        batchSize.record(ids.size());
+        queries.increment();
+
+        try {
+            Map<Long, Member> found = new HashMap<>();
+            for (Member member : memberRepository.findAllById(ids)) {
+                found.put(member.getId(), member);
+            }
+            for (Request request : requests) {
+                request.future.complete(Optional.ofNullable(found.get(request.id)));
+            }
+        } catch (RuntimeException e) {
+            log.warn("member batch load failed. ids={}", ids, e);
+            for (Request request : requests) {
+                request.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        workers.shutdown();
+    }
+
+    private static class Request {
+        private final Long id;
+        private final long enqueuedAt = System.nanoTime();
+        private final CompletableFuture<Optional<Member>> future = new CompletableFuture<>();
+
+        private Request(Long id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package study.datajpa.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Service;
+import org.springframework.util.concurrent.CustomizableThreadFactory;
+import study.datajpa.audit.AuditClock;
+import study.datajpa.dto.ImportResult;
+import study.datajpa.entity.BaseEntity;
+import study.datajpa.entity.ImportCheckpoint;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.event.MemberChangedEvent;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 파트너 회원/팀 파일 가져오기.
+ * 읽기 스레드가 CSV 를 파싱해서 chunk 단위로 큐에 넣고, 호출한 스레드가 StatelessSession 으로 insert 한다.
+ * StatelessSession 은 영속성 컨텍스트와 dirty checking 이 없어서 한 번 넣고 다시 보지 않는 행에 맞다. (insert 는 JDBC 배치)
+ * - 큐 크기가 정해져 있어서 쓰기가 느리면 읽기가 기다린다. (메모리에는 최대 queue-capacity x chunk-size 행)
+ * - chunk 마다 커밋하고 같은 트랜잭션에서 import_checkpoint 에 마지막 줄 번호를 남긴다.
+ *   실패한 뒤 같은 job 이름으로 다시 실행하면 그 다음 줄부터 넣는다. 새 파일은 새 job 이름으로 실행한다.
+ * - 엔티티 리스너를 거치지 않으므로 감사 필드는 직접 채우고, chunk 를 커밋할 때마다 벌크 이벤트를 발행한다. (count 캐시, ETag)
+ *   끝날 때 한 번만 발행하면 가져오는 동안 커밋된 회원이 캐시와 ETag 에 반영되지 않는다.
+ *   감사 시각은 chunk 트랜잭션마다 새로 읽는다. 시작 시각 하나를 쓰면 그 사이 /members/changes 가 내준 cursor 보다
+ *   이전 시각으로 커밋되어 동기화에서 빠진다.
+ * 팀 이름은 시작할 때 읽어둔 맵으로 찾고, 없으면 그 자리에서 만든다.
+ */
+@Slf4j
+@Service
+public class MemberImportService {
+
+    private final SessionFactory sessionFactory;
+    private final ApplicationEventPublisher publisher;
+    private final AuditClock auditClock;
+    private final AuditorAware<UUID> auditorAware;
+    private final int chunkSize;
+    private final int queueCapacity;
+
+    public MemberImportService(EntityManagerFactory emf,
+                               ApplicationEventPublisher publisher,
+                               AuditClock auditClock,
+                               AuditorAware<UUID> auditorAware,
+                               @Value("${datajpa.import.chunk-size:1000}") int chunkSize,
+                               @Value("${datajpa.import.queue-capacity:4}") int queueCapacity) {
+        this.sessionFactory = emf.unwrap(SessionFactory.class);
+        this.publisher = publisher;
+        this.auditClock = auditClock;
+        this.auditorAware = auditorAware;
+        this.chunkSize = chunkSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    // 팀 파일 : name (첫 줄은 헤더). 이미 있는 이름은 건너뛴다.
+    public ImportResult importTeams(Path file, String job) {
+        return run(file, job, String::trim, (session, teams, name) -> teams.resolve(session, name));
+    }
+
+    // 회원 파일 : username,age,teamName (첫 줄은 헤더, 팀이 없으면 teamName 을 비운다)
+    public ImportResult importMembers(Path file, String job) {
+        return run(file, job, MemberRow::parse, (session, teams, row) -> {
+            Member member = Member.builder()
+                    .username(row.username)
+                    .age(row.age)
+                    .team(teams.resolve(session, row.teamName))
+                    .build();
+            teams.audit(member);
+            session.insert(member);
+        });
+    }
+
+    private <R> ImportResult run(Path file, String job, Function<String, R> parser, RowWriter<R> writer) {
+        long start = System.nanoTime();
+        BlockingQueue<Chunk<R>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        ExecutorService reader = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("import-parse-"));
+        long written = 0;
+        long resumedAfter = 0;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            ImportCheckpoint checkpoint = (ImportCheckpoint) session.get(ImportCheckpoint.class, job);
+            resumedAfter = checkpoint == null ? 0 : checkpoint.getLine();
+            Teams teams = new Teams(session, auditorAware.getCurrentAuditor().orElse(null));
+
+            long skip = resumedAfter;
+            Future<?> parsing = reader.submit(() -> {
+                parse(file, skip, parser, queue);
+                return null;
+            });
+
+            Chunk<R> chunk;
+            while (!(chunk = take(queue, parsing)).isEnd()) {
+                Transaction tx = session.beginTransaction();
+                auditClock.nextBatch();     // BATCHED 모드에서 이전 chunk 의 시각을 재사용하지 않도록
+                teams.stamp(auditClock.now());
+                try {
+                    for (R row : chunk.rows) {
+                        writer.write(session, teams, row);
+                    }
+                    checkpoint = saveCheckpoint(session, checkpoint, job, chunk.lastLine);
+                    // 배치에 남은 insert 를 커밋 전에 보낸다
+                    ((SharedSessionContractImplementor) session).getJdbcCoordinator().executeBatch();
+                    tx.commit();
+                } catch (RuntimeException e) {
+                    tx.rollback();
+                    throw e;
+                }
+                written += chunk.rows.size();
+                publisher.publishEvent(MemberChangedEvent.bulkUpdated());
+            }
+        } finally {
+            reader.shutdownNow();
+        }
+
+        ImportResult result = new ImportResult(job, written, resumedAfter, System.nanoTime() - start);
+        log.info("import {} : {} rows in {} ms ({} rows/s), resumed after line {}",
+                job, result.getRows(), result.getElapsedMillis(), result.getRowsPerSecond(), resumedAfter);
+        return result;
+    }
+
+    // 읽기 스레드 : 줄 번호는 헤더를 1 로 센다. skip 번째 줄까지는 이전 실행에서 넣었으므로 건너뛴다.
+    private <R> void parse(Path file, long skip, Function<String, R> parser, BlockingQueue<Chunk<R>> queue)
+            throws IOException, InterruptedException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            reader.readLine();
+            long lineNumber = 1;
+            List<R> rows = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= skip || line.isBlank()) {
+                    continue;
+                }
+                try {
+                    rows.add(parser.apply(line));
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException(file + " " + lineNumber + "번째 줄을 읽을 수 없습니다: " + line, e);
+                }
+                if (rows.size() == chunkSize) {
+                    queue.put(new Chunk<>(rows, lineNumber));
+                    rows = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!rows.isEmpty()) {
+                queue.put(new Chunk<>(rows, lineNumber));
+            }
+            queue.put(Chunk.end());
+        }
+    }
+
+    // 읽기 스레드가 실패하면 끝 표시가 오지 않으므로 기다리면서 확인한다
+    private static <R> Chunk<R> take(BlockingQueue<Chunk<R>> queue, Future<?> parsing) {
+        try {
+            while (true) {
+                Chunk<R> chunk = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (chunk != null) {
+                    return chunk;
+                }
+                if (parsing.isDone()) {
+                    parsing.get();
+                    return queue.remove();  // 정상 종료라면 끝 표시가 들어와 있다
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("가져오기가 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw new UncheckedIOException((IOException) cause);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private ImportCheckpoint saveCheckpoint(StatelessSession session, ImportCheckpoint checkpoint, String job, long line) {
+        LocalDateTime now = auditClock.now();
+        if (checkpoint == null) {
+            checkpoint = new ImportCheckpoint(job, line, now);
+            session.insert(checkpoint);
+        } else {
+            checkpoint.moveTo(line, now);
+            session.update(checkpoint);
+        }
+        return checkpoint;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter<R> {
+        void write(StatelessSession session, Teams teams, R row);
+    }
+
+    private static class Chunk<R> {
+        private static final Chunk<?> END = new Chunk<>(List.of(), -1);
+
+        private final List<R> rows;
+        private final long lastLine;
+
+        private Chunk(List<R> rows, long lastLine) {
+            this.rows = rows;
+            this.lastLine = lastLine;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <R> Chunk<R> end() {
+            return (Chunk<R>) END;
+        }
+
+        private boolean isEnd() {
+            return this == END;
+        }
+    }
+
+    private static class MemberRow {
+        private final String username;
+        private final int age;
+        private final String teamName;
+
+        private MemberRow(String username, int age, String teamName) {
+            this.username = username;
+            this.age = age;
+            this.teamName = teamName;
+        }
+
+        private static MemberRow parse(String line) {
+            String[] columns = line.split(",", -1);
+            if (columns.length < 2) {
+                throw new IllegalArgumentException("username,age,teamName 형식이 아닙니다.");
+            }
+            String teamName = columns.length > 2 ? columns[2].trim() : "";
+            return new MemberRow(columns[0].trim(), Integer.parseInt(columns[1].trim()), teamName);
+        }
+    }
+
+    // 팀 이름 -> 팀. 쓰기 스레드에서만 사용한다.
+    // 맵의 Team 은 id 와 version 이 있어서 회원 insert 때 team_id 로만 쓰인다.
+    // 감사 시각(now)은 chunk 마다 stamp 로 바꾼다.
+    private static class Teams {
+        private final Map<String, Team> byName = new HashMap<>();
+        private final UUID auditor;
+        private LocalDateTime now;
+
+        private Teams(StatelessSession session, UUID auditor) {
+            this.auditor = auditor;
+            for (Team team : session.createQuery("select t from Team t", Team.class).list()) {
+                byName.putIfAbsent(team.getName(), team);
+            }
+        }
+
+        private Team resolve(StatelessSession session, String name) {
+            if (name == null || name.isEmpty()) {
+                return null;
+            }
+            return byName.computeIfAbsent(name, n -> {
+                Team team = Team.builder().name(n).build();
+                audit(team);
+                session.insert(team);
+                return team;
+            });
+        }
+
+        private void stamp(LocalDateTime now) {
+            this.now = now;
+        }
+
+        private void audit(BaseEntity entity) {
+            entity.audit(now, auditor);
+        }
+    }
+}
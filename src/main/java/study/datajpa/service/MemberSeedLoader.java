@@ -0,0 +1,196 @@
+package study.datajpa.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.concurrent.CustomizableThreadFactory;
+import study.datajpa.audit.AuditClock;
+import study.datajpa.entity.Member;
+import study.datajpa.event.MemberChangedEvent;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntSupplier;
+
+/**
+ * 기동 시 초기 회원 데이터 (예전 MemberController.init)
+ * - jpa : saveAllBatched 로 기동 스레드에서 바로 넣는다. (기본값, 테스트가 데이터를 기대한다)
+ * - csv : seed/members.csv 를 JDBC 배치 insert 로 별도 스레드에서 넣는다. 첫 요청을 기다리게 하지 않는다.
+ * - none : 넣지 않는다.
+ * csv 는 엔티티를 거치지 않으므로 테이블, 컬럼 이름과 id 생성기를 Hibernate 매핑에서 가져오고 (MemberInsert)
+ * 끝난 뒤 벌크 이벤트를 발행해서 count 캐시를 비운다.
+ */
+@Slf4j
+@Component
+public class MemberSeedLoader {
+
+    public enum Mode {
+        JPA, CSV, NONE
+    }
+
+    private final MemberRepository memberRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory emf;
+    private final ApplicationEventPublisher publisher;
+    private final AuditClock auditClock;
+    private final Mode mode;
+    private final Resource csv;
+    private final int batchSize;
+
+    private volatile CompletableFuture<Integer> seeded = CompletableFuture.completedFuture(0);
+
+    public MemberSeedLoader(MemberRepository memberRepository,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            EntityManagerFactory emf,
+                            ApplicationEventPublisher publisher,
+                            AuditClock auditClock,
+                            @Value("${datajpa.seed.mode:jpa}") Mode mode,
+                            @Value("${datajpa.seed.csv:classpath:seed/members.csv}") Resource csv,
+                            @Value("${datajpa.seed.batch-size:1000}") int batchSize) {
+        this.memberRepository = memberRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.emf = emf;
+        this.publisher = publisher;
+        this.auditClock = auditClock;
+        this.mode = mode;
+        this.csv = csv;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        switch (mode) {
+            case JPA:
+                seeded = CompletableFuture.completedFuture(timed(this::seedWithJpa));
+                break;
+            case CSV:
+                ExecutorService executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("member-seed-"));
+                seeded = CompletableFuture.supplyAsync(() -> timed(this::seedWithJdbc), executor)
+                        .whenComplete((count, e) -> {
+                            executor.shutdown();
+                            if (e != null) {
+                                log.error("seed failed", e);
+                            }
+                        });
+                break;
+            default:
+        }
+    }
+
+    // 적재가 끝나면 완료된다. (csv 모드에서 데이터를 기다려야 할 때)
+    public CompletableFuture<Integer> getSeeded() {
+        return seeded;
+    }
+
+    private int timed(IntSupplier loader) {
+        long start = System.nanoTime();
+        int count = loader.getAsInt();
+        log.info("seed : {} members ({}) in {} ms", count, mode, (System.nanoTime() - start) / 1_000_000);
+        return count;
+    }
+
+    private int seedWithJpa() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            members.add(Member.builder().username("user" + i)
+                    .age(i)
+                    .build());
+        }
+        return (int) memberRepository.saveAllBatched(members);
+    }
+
+    private int seedWithJdbc() {
+        List<Object[]> rows = readCsv();
+        MemberInsert insert = new MemberInsert();
+        Timestamp now = Timestamp.valueOf(auditClock.now());     // BaseEntity 감사 시각 (한 번에 넣으므로 같은 값)
+        try (StatelessSession session = emf.unwrap(SessionFactory.class).openStatelessSession()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < rows.size(); from += batchSize) {
+                    List<Object[]> batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+                    for (Object[] row : batch) {
+                        row[0] = insert.nextId(session);
+                        row[3] = now;
+                        row[4] = now;
+                    }
+                    jdbcTemplate.batchUpdate(insert.sql, batch);
+                }
+            });
+        }
+        publisher.publishEvent(MemberChangedEvent.bulkUpdated());
+        return rows.size();
+    }
+
+    // username,age (첫 줄은 헤더)
+    private List<Object[]> readCsv() {
+        List<Object[]> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv.getInputStream(), StandardCharsets.UTF_8))) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] columns = line.split(",", -1);
+                rows.add(new Object[]{null, columns[0].trim(), Integer.parseInt(columns[1].trim()), null, null});
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("seed 파일을 읽을 수 없습니다: " + csv, e);
+        }
+        return rows;
+    }
+
+    /**
+     * member 테이블 insert 문과 id 생성기. 컬럼 이름은 매핑에서 가져오므로 @Column 이름이 바뀌어도 따라간다.
+     * id 는 JPA 저장과 같은 생성기(member_seq, pooled 옵티마이저)에서 받으므로 이후 저장하는 회원과 겹치지 않는다.
+     * 값 순서 : id, username, age, createdDate, lastModifiedDate (version 은 0)
+     */
+    private class MemberInsert {
+        private final String sql;
+        private final IdentifierGenerator idGenerator;
+
+        private MemberInsert() {
+            AbstractEntityPersister persister = (AbstractEntityPersister) emf.unwrap(SessionFactoryImplementor.class)
+                    .getMetamodel().entityPersister(Member.class);
+            String columns = String.join(", ",
+                    persister.getIdentifierColumnNames()[0],
+                    persister.getPropertyColumnNames("username")[0],
+                    persister.getPropertyColumnNames("age")[0],
+                    persister.getPropertyColumnNames("version")[0],
+                    persister.getPropertyColumnNames("createdDate")[0],
+                    persister.getPropertyColumnNames("lastModifiedDate")[0]);
+            this.sql = "insert into " + persister.getTableName() + " (" + columns + ") values (?, ?, ?, 0, ?, ?)";
+            this.idGenerator = persister.getIdentifierGenerator();
+        }
+
+        private Object nextId(StatelessSession session) {
+            return idGenerator.generate((SharedSessionContractImplementor) session, null);
+        }
+    }
+}
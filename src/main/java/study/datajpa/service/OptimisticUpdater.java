@@ -0,0 +1,109 @@
+package study.datajpa.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.OptimisticLockException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * 낙관적 락(@Version) 충돌 시 재시도하는 수정 API.
+ * 비관적 락(findLockByUsername)처럼 행을 잡고 기다리지 않고, 커밋 시점에 버전이 바뀌었으면 처음부터 다시 한다.
+ * 시도마다 새 트랜잭션(REQUIRES_NEW)에서 최신 상태를 다시 읽으므로 work 는 여러 번 실행될 수 있어야 한다.
+ * 대기 시간은 initial-backoff 부터 multiplier 배씩 늘리고(max-backoff 까지), jitter 비율만큼 무작위로 줄인다.
+ */
+@Slf4j
+@Service
+public class OptimisticUpdater {
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate attemptTransaction;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final double multiplier;
+    private final double jitter;
+
+    private final Counter conflicts;
+    private final Counter retries;
+    private final Counter giveUps;
+
+    public OptimisticUpdater(MemberRepository memberRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${datajpa.optimistic.max-attempts:5}") int maxAttempts,
+                             @Value("${datajpa.optimistic.initial-backoff:5ms}") Duration initialBackoff,
+                             @Value("${datajpa.optimistic.max-backoff:200ms}") Duration maxBackoff,
+                             @Value("${datajpa.optimistic.multiplier:2.0}") double multiplier,
+                             @Value("${datajpa.optimistic.jitter:0.5}") double jitter) {
+        this.memberRepository = memberRepository;
+        this.attemptTransaction = new TransactionTemplate(transactionManager);
+        this.attemptTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+
+        this.conflicts = Counter.builder("optimistic.conflicts")
+                .description("버전 충돌로 실패한 시도 수")
+                .register(meterRegistry);
+        this.retries = Counter.builder("optimistic.retries")
+                .register(meterRegistry);
+        this.giveUps = Counter.builder("optimistic.giveups")
+                .description("max-attempts 를 다 쓰고 포기한 수정 수")
+                .register(meterRegistry);
+    }
+
+    public Member updateMember(Long memberId, Consumer<Member> change) {
+        return execute(status -> {
+            Member member = memberRepository.findById(memberId)
+                    .orElseThrow(() -> new IllegalArgumentException("없는 회원입니다. id=" + memberId));
+            change.accept(member);
+            return member;
+        });
+    }
+
+    public <T> T execute(TransactionCallback<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attemptTransaction.execute(work);
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    giveUps.increment();
+                    log.warn("optimistic update gave up after {} attempts", attempt);
+                    throw e instanceof OptimisticLockingFailureException
+                            ? (OptimisticLockingFailureException) e
+                            : new ObjectOptimisticLockingFailureException(e.getMessage(), e);
+                }
+                retries.increment();
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    private void backoff(int attempt, RuntimeException cause) {
+        double delay = Math.min(maxBackoff.toNanos(), initialBackoff.toNanos() * Math.pow(multiplier, attempt - 1));
+        long nanos = (long) (delay * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+
+/**
+ * 팀 배정 : member.team_id 만 바꾼다.
+ * 팀은 getReference 로 프록시만 얻으므로 팀 행도, 팀원 목록도 읽지 않는다. (팀이 없으면 flush 때 FK 위반)
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class TeamMembershipService {
+
+    private final MemberRepository memberRepository;
+    private final EntityManager em;
+
+    public void join(Long memberId, Long teamId) {
+        findMember(memberId).changeTeam(em.getReference(Team.class, teamId));
+    }
+
+    public void leave(Long memberId) {
+        findMember(memberId).leaveTeam();
+    }
+
+    private Member findMember(Long memberId) {
+        return memberRepository.findById(memberId)
+                .orElseThrow(() -> new IllegalArgumentException("없는 회원입니다. id=" + memberId));
+    }
+}
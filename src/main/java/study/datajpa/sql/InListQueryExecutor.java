@@ -0,0 +1,103 @@
+package study.datajpa.sql;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import org.springframework.util.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * 큰 in (...) 조회를 chunk-size 개씩 나눠서 실행하고 결과를 합친다.
+ * - DB 파라미터 개수 제한을 넘지 않는다.
+ * - chunk-size 를 2의 거듭제곱으로 두고 hibernate.query.in_clause_parameter_padding 을 켜면
+ *   in 절 길이가 2의 거듭제곱으로만 만들어져서 쿼리 플랜이 재사용된다.
+ * - 호출한 쪽에 트랜잭션이 없고 chunk 가 parallel-threshold 개 이상이면 chunk 마다 읽기 전용 트랜잭션을 열어 병렬로 실행한다.
+ *   이때 결과 엔티티는 준영속 상태다. 트랜잭션 안에서 호출하면 그 트랜잭션에서 순서대로 실행한다. (영속 상태 유지)
+ */
+@Component
+public class InListQueryExecutor implements DisposableBean {
+
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
+    private final int parallelThreshold;
+    private final ExecutorService workers;
+
+    public InListQueryExecutor(PlatformTransactionManager transactionManager,
+                               @Value("${datajpa.in-list.chunk-size:512}") int chunkSize,
+                               @Value("${datajpa.in-list.parallel-threshold:4}") int parallelThreshold,
+                               @Value("${datajpa.in-list.threads:4}") int threads) {
+        Assert.isTrue(chunkSize > 0, "datajpa.in-list.chunk-size 는 1 이상이어야 합니다: " + chunkSize);
+        Assert.isTrue(threads > 0, "datajpa.in-list.threads 는 1 이상이어야 합니다: " + threads);
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setReadOnly(true);
+        this.chunkSize = chunkSize;
+        this.parallelThreshold = parallelThreshold;
+        this.workers = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("in-list-"));
+    }
+
+    public <V, T> List<T> query(Collection<V> values, Function<List<V>, List<T>> chunkQuery) {
+        List<V> distinct = new ArrayList<>(new LinkedHashSet<>(values));
+        if (distinct.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<List<V>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            chunks.add(distinct.subList(from, Math.min(from + chunkSize, distinct.size())));
+        }
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return sequential(chunks, chunkQuery);
+        }
+        if (chunks.size() < parallelThreshold) {
+            return chunkTransaction.execute(status -> sequential(chunks, chunkQuery));
+        }
+        return parallel(chunks, chunkQuery);
+    }
+
+    private <V, T> List<T> sequential(List<List<V>> chunks, Function<List<V>, List<T>> chunkQuery) {
+        List<T> result = new ArrayList<>();
+        for (List<V> chunk : chunks) {
+            result.addAll(chunkQuery.apply(chunk));
+        }
+        return result;
+    }
+
+    private <V, T> List<T> parallel(List<List<V>> chunks, Function<List<V>, List<T>> chunkQuery) {
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(chunks.size());
+        for (List<V> chunk : chunks) {
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> chunkTransaction.execute(status -> chunkQuery.apply(chunk)), workers));
+        }
+        List<T> result = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<T>> future : futures) {
+                result.addAll(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(false));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,8 @@
+package study.datajpa.sql;
+
+public class SqlBudgetExceededException extends RuntimeException {
+
+    public SqlBudgetExceededException(long budget, String sql) {
+        super("SQL 실행 한도(" + budget + ")를 넘었습니다. sql=" + sql);
+    }
+}
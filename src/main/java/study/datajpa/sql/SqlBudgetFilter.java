@@ -0,0 +1,36 @@
+package study.datajpa.sql;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+// HTTP 요청 하나 동안 실행된 SQL 수를 세고 한도를 넘으면 로그를 남긴다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private final SqlStatementCounter counter;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        counter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlCount count = counter.stop();
+            if (count.getTotal() > counter.getMaxPerRequest()) {
+                log.warn("SQL 실행 한도 초과 : {} {} -> {}건 (한도 {})",
+                        request.getMethod(), request.getRequestURI(), count.getTotal(), counter.getMaxPerRequest());
+            }
+        }
+    }
+}
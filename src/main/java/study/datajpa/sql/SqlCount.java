@@ -0,0 +1,45 @@
+package study.datajpa.sql;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// 한 범위(HTTP 요청, 테스트) 동안 실행된 SQL 집계. 한 스레드에서만 사용한다.
+public class SqlCount {
+
+    private long total;
+    private final Map<String, Integer> statements = new LinkedHashMap<>();
+
+    int record(String sql) {
+        total++;
+        return statements.merge(sql, 1, Integer::sum);
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Map<String, Integer> getStatements() {
+        return Collections.unmodifiableMap(statements);
+    }
+
+    // 같은 SQL 이 threshold 번 이상 실행됐다면 N+1 을 의심한다
+    public List<String> repeated(int threshold) {
+        return statements.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    public void reset() {
+        total = 0;
+        statements.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "SqlCount{total=" + total + ", statements=" + statements + "}";
+    }
+}
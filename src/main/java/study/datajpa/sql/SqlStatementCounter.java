@@ -0,0 +1,78 @@
+package study.datajpa.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 하이버네이트가 실행하는 SQL 을 스레드별로 센다.
+ * start() ~ stop() 사이에서만 집계하며 HTTP 요청은 SqlBudgetFilter, 테스트는 SqlBudgetExtension 이 범위를 연다.
+ * 같은 SQL 이 반복되면(지연 로딩 N+1) 경고를 남기고, mode=fail 이면 한도를 넘는 순간 예외를 던진다.
+ */
+@Slf4j
+@Component
+public class SqlStatementCounter implements StatementInspector {
+
+    public enum Mode {
+        LOG, FAIL
+    }
+
+    private final ThreadLocal<SqlCount> current = new ThreadLocal<>();
+    // 범위와 상관없이 스레드별 누적 실행 수 (메서드별 지표에서 전후 차이로 사용)
+    private final ThreadLocal<long[]> executedOnThread = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final long maxPerRequest;
+    private final int repeatThreshold;
+    private final Mode mode;
+
+    public SqlStatementCounter(@Value("${datajpa.sql-budget.max-per-request:50}") long maxPerRequest,
+                               @Value("${datajpa.sql-budget.repeat-threshold:5}") int repeatThreshold,
+                               @Value("${datajpa.sql-budget.mode:log}") Mode mode) {
+        this.maxPerRequest = maxPerRequest;
+        this.repeatThreshold = repeatThreshold;
+        this.mode = mode;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        executedOnThread.get()[0]++;
+        SqlCount count = current.get();
+        if (count == null) {
+            return sql;
+        }
+
+        int executed = count.record(sql);
+        if (executed == repeatThreshold) {
+            log.warn("N+1 의심 : 같은 SQL 이 {}번 실행됨. sql={}", executed, sql);
+        }
+        if (mode == Mode.FAIL && count.getTotal() > maxPerRequest) {
+            throw new SqlBudgetExceededException(maxPerRequest, sql);
+        }
+        return sql;
+    }
+
+    public SqlCount start() {
+        SqlCount count = new SqlCount();
+        current.set(count);
+        return count;
+    }
+
+    public SqlCount current() {
+        return current.get();
+    }
+
+    public SqlCount stop() {
+        SqlCount count = current.get();
+        current.remove();
+        return count;
+    }
+
+    public long executedOnThread() {
+        return executedOnThread.get()[0];
+    }
+
+    public long getMaxPerRequest() {
+        return maxPerRequest;
+    }
+}
@@ -0,0 +1,77 @@
+package study.datajpa.audit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 트랜잭션마다 등록자가 달라지는 걸 보려고 테스트 트랜잭션을 쓰지 않는다.
+@SpringBootTest
+class AuditingTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    // 테스트 메서드마다 mock 요청이 묶여 있어서 그대로 두면 요청 단위로 등록자가 같아진다
+    @BeforeEach
+    void noRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllById(ids);
+    }
+
+    @Test
+    public void oneAuditorAndTimestampPerTransactionBatch() throws Exception {
+        // when : 트랜잭션 두 번
+        List<Member> first = saveInTransaction("audit1-", 10);
+        List<Member> second = saveInTransaction("audit2-", 10);
+
+        // then
+        assertThat(first).extracting(Member::getCreateBy).containsOnly(first.get(0).getCreateBy()).doesNotContainNull();
+        assertThat(first).extracting(Member::getCreatedDate).containsOnly(first.get(0).getCreatedDate());
+        assertThat(first.get(0).getLastModifiedDate()).isEqualTo(first.get(0).getCreatedDate());
+        assertThat(second.get(0).getCreateBy()).isNotEqualTo(first.get(0).getCreateBy());
+    }
+
+    @Test
+    public void updateGetsNewTimestamp() throws Exception {
+        Long id = saveInTransaction("audit3-", 1).get(0).getId();
+        Member before = memberRepository.findById(id).get();   // DB 정밀도로 잘린 값끼리 비교
+        Thread.sleep(5);
+
+        transactionTemplate.executeWithoutResult(status ->
+                memberRepository.findById(id).get().changeName("audit3-renamed"));
+
+        Member updated = memberRepository.findById(id).get();
+        assertThat(updated.getLastModifiedDate()).isAfter(before.getLastModifiedDate());
+        assertThat(updated.getCreatedDate()).isEqualTo(before.getCreatedDate());
+    }
+
+    private List<Member> saveInTransaction(String prefix, int count) {
+        List<Member> members = transactionTemplate.execute(status -> {
+            List<Member> saved = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                saved.add(memberRepository.save(Member.builder().username(prefix + i).age(9200).build()));
+            }
+            return saved;
+        });
+        ids.addAll(members.stream().map(Member::getId).collect(Collectors.toList()));
+        return members;
+    }
+}
@@ -0,0 +1,51 @@
+package study.datajpa.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 트랜잭션이 끝난 뒤의 캐시 상태를 봐야 해서 테스트 트랜잭션을 쓰지 않는다. (회원은 롤백으로 지운다)
+@SpringBootTest
+class CountCacheTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired CountCache countCache;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    @Test
+    public void notCachedInChangedTransaction() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            memberRepository.saveAndFlush(Member.builder().username("countCache1").age(9600).build());
+
+            // 커밋 전 행까지 센 값이므로 담지 않는다
+            assertThat(countCache.get("countCacheTest1", () -> 1L)).isEqualTo(1L);
+            assertThat(countCache.get("countCacheTest1", () -> 2L)).isEqualTo(2L);
+            status.setRollbackOnly();
+        });
+
+        // 트랜잭션 밖에서는 다시 캐시된다
+        assertThat(countCache.get("countCacheTest1", () -> 3L)).isEqualTo(3L);
+        assertThat(countCache.get("countCacheTest1", () -> 4L)).isEqualTo(3L);
+    }
+
+    @Test
+    public void invalidatedAfterRollback() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            memberRepository.saveAndFlush(Member.builder().username("countCache2").age(9600).build());
+
+            // flush 이후에 다른 트랜잭션이 값을 담는다
+            CompletableFuture.runAsync(() -> countCache.get("countCacheTest2", () -> 1L)).join();
+            status.setRollbackOnly();
+        });
+
+        // 롤백 후에도 지워진다
+        assertThat(countCache.get("countCacheTest2", () -> 2L)).isEqualTo(2L);
+    }
+}
@@ -0,0 +1,187 @@
+package study.datajpa.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 커밋 이후의 캐시 상태를 봐야 해서 테스트 트랜잭션을 쓰지 않는다.
+@SpringBootTest
+class UsernameCacheTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired UsernameCache usernameCache;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    private final List<Member> members = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        members.forEach(member -> memberRepository.deleteById(member.getId()));
+    }
+
+    @Test
+    public void hitAfterFirstLookup() throws Exception {
+        // given
+        Member member = save("nearCache1");
+        memberRepository.findByUsername("nearCache1");
+        long hits = usernameCache.stats().hitCount();
+
+        // when
+        List<Member> result = memberRepository.findListByUsername("nearCache1");
+        Member single = memberRepository.findMemberByUsername("nearCache1");
+
+        // then
+        assertThat(result).extracting("id").containsExactly(member.getId());
+        assertThat(single.getId()).isEqualTo(member.getId());
+        assertThat(usernameCache.stats().hitCount()).isEqualTo(hits + 2);
+    }
+
+    @Test
+    public void negativeResultInvalidatedBySave() throws Exception {
+        // given : 없는 회원도 캐시된다
+        assertThat(memberRepository.findOptionalByUsername("nearCache2")).isEmpty();
+        assertThat(usernameCache.get("nearCache2")).isEmpty();
+
+        // when
+        Member member = save("nearCache2");
+
+        // then
+        assertThat(memberRepository.findOptionalByUsername("nearCache2")).get()
+                .extracting(Member::getId).isEqualTo(member.getId());
+    }
+
+    @Test
+    public void renameInvalidatesOldAndNewName() throws Exception {
+        // given
+        Member member = save("nearCache3");
+        memberRepository.findByUsername("nearCache3");
+        memberRepository.findByUsername("nearCache4");
+
+        // when
+        rename(member.getId(), "nearCache4");
+
+        // then
+        assertThat(memberRepository.findByUsername("nearCache3")).isEmpty();
+        assertThat(memberRepository.findByUsername("nearCache4")).extracting("id").containsExactly(member.getId());
+    }
+
+    @Test
+    public void invalidateMembersOnlyTouchesTheirUsernames() throws Exception {
+        // given
+        Member member = save("nearCache6");
+        save("nearCache7");
+        memberRepository.findByUsername("nearCache6");
+        memberRepository.findByUsername("nearCache7");
+
+        // when : id -> username 역색인으로 찾아서 지운다
+        usernameCache.invalidateMembers(Set.of(member.getId()));
+
+        // then
+        assertThat(usernameCache.get("nearCache6")).isNull();
+        assertThat(usernameCache.get("nearCache7")).isNotNull();
+    }
+
+    @Test
+    public void bulkUpdateInvalidatesAll() throws Exception {
+        save("nearCache5");
+        memberRepository.findByUsername("nearCache5");
+
+        transactionTemplate.executeWithoutResult(status -> memberRepository.bulkAgePlus(Integer.MAX_VALUE));
+
+        assertThat(usernameCache.get("nearCache5")).isNull();
+    }
+
+    /**
+     * 쓰기 스레드가 이름을 A, B 로 번갈아 바꾸면서 커밋하고, 읽기 스레드들은 캐시를 거쳐 계속 조회한다.
+     * 시퀀스 락 : 쓰기 스레드는 커밋 전에 seq 를 홀수로, 커밋 후에 짝수로 올린다.
+     * 조회 전후의 seq 가 같은 짝수면 그 사이에 커밋이 없었으므로 마지막 커밋 상태와 같아야 한다.
+     */
+    @Test
+    public void neverStaleAfterCommit() throws Exception {
+        // given
+        String a = "nearCacheA";
+        String b = "nearCacheB";
+        Long id = save(a).getId();
+        AtomicLong seq = new AtomicLong();
+        AtomicInteger checked = new AtomicInteger();
+        AtomicInteger stale = new AtomicInteger();
+        int readers = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+
+        // when
+        Future<?> writer = executor.submit(() -> {
+            for (int i = 1; i <= 100; i++) {
+                seq.incrementAndGet();
+                rename(id, i % 2 == 0 ? a : b);
+                seq.incrementAndGet();
+                sleep(2);
+            }
+        });
+        List<Future<?>> readerFutures = new ArrayList<>();
+        for (int r = 0; r < readers; r++) {
+            readerFutures.add(executor.submit(() -> {
+                while (!writer.isDone()) {
+                    long before = seq.get();
+                    if (before % 2 == 1) {
+                        continue;
+                    }
+                    // 커밋된 이름 : 짝수번째 커밋은 a, 홀수번째 커밋은 b (처음은 a)
+                    String current = (before / 2) % 2 == 0 ? a : b;
+                    String other = current.equals(a) ? b : a;
+                    boolean found = memberRepository.findByUsername(current).stream().anyMatch(m -> m.getId().equals(id));
+                    boolean foundOther = memberRepository.findByUsername(other).stream().anyMatch(m -> m.getId().equals(id));
+                    if (seq.get() == before) {
+                        checked.incrementAndGet();
+                        if (!found || foundOther) {
+                            stale.incrementAndGet();
+                        }
+                    }
+                }
+            }));
+        }
+        writer.get(60, TimeUnit.SECONDS);
+        for (Future<?> reader : readerFutures) {
+            reader.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(checked.get()).isGreaterThan(0);
+        assertThat(stale.get()).isZero();
+        assertThat(usernameCache.stats().hitCount()).isGreaterThan(0);
+    }
+
+    private Member save(String username) {
+        Member member = memberRepository.save(Member.builder().username(username).age(6000).build());
+        members.add(member);
+        return member;
+    }
+
+    private void rename(Long id, String username) {
+        transactionTemplate.executeWithoutResult(status -> memberRepository.findById(id).get().changeName(username));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package study.datajpa.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    private final List<Member> members = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAll(members);
+    }
+
+    @Test
+    public void conditionalGet() throws Exception {
+        // given
+        MvcResult first = mockMvc.perform(get("/members"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when : 바뀐 게 없으면 본문 없이 304
+        mockMvc.perform(get("/members").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/members/{id}", memberRepository.findMinId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // then : 회원이 바뀌면 다시 200
+        members.add(memberRepository.save(Member.builder().username("etag").age(9300).build()));
+        MvcResult changed = mockMvc.perform(get("/members").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(changed.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+    }
+
+    @Test
+    public void bulkUpdateChangesEtag() throws Exception {
+        String etag = mockMvc.perform(get("/members")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // 바뀐 행이 없어도 벌크 연산은 버전을 올린다
+        transactionTemplate.executeWithoutResult(status -> memberRepository.bulkAgePlus(9300));
+
+        mockMvc.perform(get("/members").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void batchDeleteChangesEtag() throws Exception {
+        Member member = memberRepository.save(Member.builder().username("etagBatch").age(9300).build());
+        String etag = mockMvc.perform(get("/members")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // 엔티티 리스너를 거치지 않는 삭제도 버전을 올린다
+        memberRepository.deleteAllByIdInBatch(List.of(member.getId()));
+
+        mockMvc.perform(get("/members").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void cursorWithUnsupportedSort() throws Exception {
+        // 키셋 비교를 할 수 없는 정렬 속성은 400
+        mockMvc.perform(get("/members/cursor").param("sort", "createdDate"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void cursorWithInvalidCursor() throws Exception {
+        // 정렬 키 개수(username, id)와 맞지 않는 커서, 숫자가 아닌 id
+        mockMvc.perform(get("/members/cursor").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/members/cursor").param("cursor", "dXNlcjE.YWJj"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void changesWithInvalidCursor() throws Exception {
+        mockMvc.perform(get("/members/changes").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,126 @@
+package study.datajpa.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 내장 H2 세 개(주 DB 1, 복제본 2)로 라우팅을 확인한다. database() 로 실제 연결된 DB 이름을 본다.
+// 복제가 없으므로 테스트마다 주 DB 스키마를 복제본에 복사한다.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "datajpa.datasource.routing.enabled=true",
+        "datajpa.datasource.routing.health-check-interval=PT1H",
+        "datajpa.datasource.replicas[0].name=replica1",
+        "datajpa.datasource.replicas[0].url=" + ReadWriteRoutingDataSourceTest.REPLICA1,
+        "datajpa.datasource.replicas[0].username=sa",
+        "datajpa.datasource.replicas[1].name=replica2",
+        "datajpa.datasource.replicas[1].url=" + ReadWriteRoutingDataSourceTest.REPLICA2,
+        "datajpa.datasource.replicas[1].username=sa",
+})
+class ReadWriteRoutingDataSourceTest {
+
+    static final String REPLICA1 = "jdbc:h2:mem:replica1;DB_CLOSE_DELAY=-1";
+    static final String REPLICA2 = "jdbc:h2:mem:replica2;DB_CLOSE_DELAY=-1";
+    static final long REPLICATED_ID = 1_000_000_000L;
+
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired ReadWriteRoutingDataSource routingDataSource;
+    @Autowired MeterRegistry meterRegistry;
+    @Autowired MemberRepository memberRepository;
+
+    @BeforeEach
+    void copySchema() {
+        // 트랜잭션 밖이라 주 DB 에서 실행된다
+        List<String> script = jdbcTemplate.queryForList("script nodata", String.class);
+        for (String url : List.of(REPLICA1, REPLICA2)) {
+            JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+            replica.execute("drop all objects");
+            script.stream()
+                    .filter(sql -> !sql.startsWith("--"))
+                    .forEach(replica::execute);
+        }
+    }
+
+    @AfterEach
+    void restore() {
+        routingDataSource.getReplicas().forEach(ReplicaPool::check);
+    }
+
+    @Test
+    public void readOnlyGoesToReplicas() throws Exception {
+        Set<String> databases = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            databases.add(database(true));
+        }
+
+        assertThat(databases).containsExactlyInAnyOrder("REPLICA1", "REPLICA2");
+    }
+
+    @Test
+    public void writeGoesToPrimary() throws Exception {
+        assertThat(database(false)).isEqualTo("PRIMARY");
+    }
+
+    @Test
+    public void fallbackToPrimaryWhenReplicasDown() throws Exception {
+        // given
+        routingDataSource.getReplicas().forEach(replica -> replica.markDown("test"));
+        double before = meterRegistry.counter("datasource.routing.fallback").count();
+
+        // when
+        String database = database(true);
+
+        // then
+        assertThat(database).isEqualTo("PRIMARY");
+        assertThat(meterRegistry.counter("datasource.routing.fallback").count()).isEqualTo(before + 1);
+    }
+
+    @Test
+    public void skipUnhealthyReplica() throws Exception {
+        routingDataSource.getReplicas().get(0).markDown("test");
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(database(true)).isEqualTo("REPLICA2");
+        }
+    }
+
+    @Test
+    public void repositoryReadGoesToReplicas() throws Exception {
+        // given : 복제된 것처럼 복제본에만 회원을 넣는다
+        for (String url : List.of(REPLICA1, REPLICA2)) {
+            new JdbcTemplate(new DriverManagerDataSource(url, "sa", "")).update(
+                    "insert into member (member_id, username, age, version, created_date, last_modified_date)" +
+                            " values (?, 'replicated', 9700, 0, now(), now())", REPLICATED_ID);
+        }
+
+        // when : SimpleJpaRepository 는 클래스 단위 readOnly 트랜잭션이라 복제본에서 읽는다
+        // then
+        for (int i = 0; i < 2; i++) {
+            assertThat(memberRepository.findById(REPLICATED_ID)).get()
+                    .extracting(Member::getUsername).isEqualTo("replicated");
+        }
+        assertThat(memberRepository.existsById(REPLICATED_ID)).isTrue();
+    }
+
+    private String database(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject("select database()", String.class));
+    }
+}
@@ -1,19 +1,33 @@
 package study.datajpa.entity;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.sql.SqlCount;
+import study.datajpa.support.SqlBudgetExtension;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 @SpringBootTest
+@ExtendWith(SqlBudgetExtension.class)
 class MemberTest {
 
     @PersistenceContext
     private EntityManager em;
 
+    @Autowired
+    private MemberRepository memberRepository;
+
     @Test
     @Transactional
     public void testEntity() throws Exception {
@@ -45,5 +59,57 @@ class MemberTest {
         }
     }
 
+    @Test
+    @Transactional
+    public void changeTeamKeepsLoadedCollectionInSync() throws Exception {
+        Team teamA = Team.builder().name("teamA").build();
+        Team teamB = Team.builder().name("teamB").build();
+        Member member = new Member("member1", 10, teamA);
 
-}
\ No newline at end of file
+        member.changeTeam(teamB);
+
+        assertThat(teamA.getMembers()).isEmpty();
+        assertThat(teamB.getMembers()).containsExactly(member);
+        teamB.removeMember(member);
+        assertThat(member.getTeam()).isNull();
+        assertThat(teamB.getMembers()).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    public void joinLargeTeamWithoutLoadingMembers(SqlCount sqlCount) throws Exception {
+        // given : 팀원 5만 명
+        Team team = Team.builder().name("bigTeam").build();
+        em.persist(team);
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            members.add(Member.builder().username("big" + i).age(8000).team(team).build());
+        }
+        memberRepository.saveAllBatched(members);
+        em.clear();
+        members.clear();
+
+        Team bigTeam = em.getReference(Team.class, team.getId());
+        sqlCount.reset();
+        long allocatedBefore = allocatedBytes();
+
+        // when : 100 명 추가
+        for (int i = 0; i < 100; i++) {
+            em.persist(new Member("newcomer" + i, 8000, bigTeam));
+        }
+        em.flush();
+
+        // then : 팀도, 팀원 목록도 읽지 않고 insert 만 나간다
+        long allocated = allocatedBytes() - allocatedBefore;
+        assertThat(Hibernate.isInitialized(bigTeam)).isFalse();
+        assertThat(sqlCount.getStatements().keySet()).noneMatch(sql -> sql.startsWith("select"));
+        assertThat(sqlCount.getTotal()).isLessThanOrEqualTo(100 + 3);   // insert + 시퀀스 (배치면 더 적다)
+        // 팀원 5만 명을 읽으면 수십 MB 를 할당한다
+        assertThat(allocated).isLessThan(8 * 1024 * 1024);
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
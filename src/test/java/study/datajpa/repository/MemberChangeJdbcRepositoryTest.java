@@ -0,0 +1,113 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberChangeDto;
+import study.datajpa.dto.MemberChanges;
+import study.datajpa.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+// 커밋된 변경만 보이므로 테스트 트랜잭션을 쓰지 않는다
+@SpringBootTest(properties = "datajpa.sync.settle-time=0ms")
+class MemberChangeJdbcRepositoryTest {
+
+    @Autowired MemberChangeJdbcRepository memberChangeJdbcRepository;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    private final List<Member> members = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAll(members);
+    }
+
+    @Test
+    public void changesSinceCursor() throws Exception {
+        // given : 지금까지의 변경을 모두 받아둔다
+        String cursor = drain(null);
+        Member member1 = save("sync1");
+        Member member2 = save("sync2");
+        Member member3 = save("sync3");
+        Member member4 = save("sync4");
+        memberRepository.delete(member3);
+        memberRepository.deleteAllByIdInBatch(List.of(member4.getId()));   // 벌크 삭제도 tombstone 을 남긴다
+        members.removeAll(List.of(member3, member4));
+
+        // 벌크 연산도 수정 시각을 올린다
+        transactionTemplate.executeWithoutResult(status -> memberRepository.bulkAgePlus(9400));
+        Thread.sleep(5);
+
+        // when
+        MemberChanges changes = memberChangeJdbcRepository.findChanges(cursor, 100);
+
+        // then : bulkAgePlus 는 다른 테스트가 남긴 회원(age >= 9400)도 바꾸므로 이 테스트의 id 만 본다
+        List<Long> ids = List.of(member1.getId(), member2.getId(), member3.getId(), member4.getId());
+        assertThat(changes.isHasMore()).isFalse();
+        assertThat(changes.getChanges())
+                .filteredOn(change -> ids.contains(change.getId()))
+                .extracting(MemberChangeDto::getId, MemberChangeDto::getAge, MemberChangeDto::isDeleted)
+                .containsExactlyInAnyOrder(
+                        tuple(member1.getId(), 9401, false),
+                        tuple(member2.getId(), 9401, false),
+                        tuple(member3.getId(), null, true),
+                        tuple(member4.getId(), null, true));
+
+        // 받은 cursor 이후로는 변경이 없다
+        MemberChanges next = memberChangeJdbcRepository.findChanges(changes.getCursor(), 100);
+        assertThat(next.getChanges()).isEmpty();
+        assertThat(next.getCursor()).isEqualTo(changes.getCursor());
+    }
+
+    @Test
+    public void pagesThroughChanges() throws Exception {
+        String cursor = drain(null);
+        for (int i = 0; i < 3; i++) {
+            save("syncPage" + i);
+        }
+        Thread.sleep(5);
+
+        List<Long> ids = new ArrayList<>();
+        MemberChanges page;
+        do {
+            page = memberChangeJdbcRepository.findChanges(cursor, 1);
+            page.getChanges().forEach(change -> ids.add(change.getId()));
+            cursor = page.getCursor();
+        } while (page.isHasMore());
+
+        assertThat(ids).containsExactlyElementsOf(members.stream().map(Member::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void invalidCursor() throws Exception {
+        // @Repository 예외 변환을 거쳐도 그대로 나와야 컨트롤러에서 400 으로 바뀐다
+        assertThatThrownBy(() -> memberChangeJdbcRepository.findChanges("not-a-cursor", 10))
+                .isInstanceOf(InvalidPageRequestException.class);
+    }
+
+    private Member save(String username) {
+        Member member = memberRepository.save(Member.builder().username(username).age(9400).build());
+        members.add(member);
+        return member;
+    }
+
+    private String drain(String cursor) throws InterruptedException {
+        Thread.sleep(5);
+        MemberChanges page;
+        do {
+            page = memberChangeJdbcRepository.findChanges(cursor, 1000);
+            cursor = page.getCursor();
+        } while (page.isHasMore());
+        return cursor;
+    }
+}
@@ -120,6 +120,25 @@ class MemberJpaRepositoryTest {
         assertThat(totalCount).isEqualTo(5);
     }
 
+    @Test
+    public void keysetPaging() throws Exception {
+        // given
+        memberJpaRepository.save(Member.builder().username("member1").age(10).build());
+        memberJpaRepository.save(Member.builder().username("member2").age(20).build());
+        memberJpaRepository.save(Member.builder().username("member2").age(30).build());
+        memberJpaRepository.save(Member.builder().username("member4").age(40).build());
+        memberJpaRepository.save(Member.builder().username("member5").age(50).build());
+
+        // when
+        List<Member> first = memberJpaRepository.findByPageAfter(10, null, null, 2);
+        Member last = first.get(first.size() - 1);
+        List<Member> second = memberJpaRepository.findByPageAfter(10, last.getUsername(), last.getId(), 2);
+
+        // then
+        assertThat(first).extracting("age").containsExactly(10, 20);
+        assertThat(second).extracting("age").containsExactly(30, 40);   // 같은 username 은 id 순서로 이어진다
+    }
+
     @Test
     public void bulkUpdate() throws Exception {
         // given
@@ -135,4 +154,23 @@ class MemberJpaRepositoryTest {
         // then
         assertThat(resultCount).isEqualTo(4);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void totalCountInvalidatedByBulkUpdate() throws Exception {
+        // given
+        memberJpaRepository.save(Member.builder().username("member1").age(1010).build());
+        memberJpaRepository.save(Member.builder().username("member2").age(1020).build());
+        memberJpaRepository.save(Member.builder().username("member3").age(1030).build());
+        memberJpaRepository.save(Member.builder().username("member4").age(1040).build());
+        memberJpaRepository.save(Member.builder().username("member5").age(1050).build());
+        Long before = memberJpaRepository.totalCount(1021);  // 캐시에 담긴다
+
+        // when
+        memberJpaRepository.bulkAgePlus(1020);   // 1020살 -> 1021살
+        Long after = memberJpaRepository.totalCount(1021);
+
+        // then
+        assertThat(before).isEqualTo(3);
+        assertThat(after).isEqualTo(4);
+    }
+}
@@ -1,27 +1,38 @@
 package study.datajpa.repository;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.CursorPage;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSummary;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.sql.SqlCount;
+import study.datajpa.support.MaxQueries;
+import study.datajpa.support.SqlBudgetExtension;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
 @Transactional
+@ExtendWith(SqlBudgetExtension.class)
 class MemberRepositoryTest {
 
     @Autowired MemberRepository memberRepository;
@@ -220,6 +231,47 @@ class MemberRepositoryTest {
         assertThat(memberPage.hasNext()).isTrue();
     }
 
+    @Test
+    public void slicing() throws Exception {
+        // given
+        for (int i = 1; i <= 5; i++) {
+            memberRepository.save(Member.builder().username("member" + i).age(1000).build());
+        }
+        PageRequest pageRequest = PageRequest.of(1, 3, Sort.by(Sort.Direction.DESC, "username"));
+
+        // when
+        Slice<Member> slice = memberRepository.findSliceByAge(1000, pageRequest);    // count 쿼리가 나가지 않는다
+        Page<Member> page = memberRepository.findByAgeWithCachedCount(1000, pageRequest);
+
+        // then
+        assertThat(slice.getContent().size()).isEqualTo(2);
+        assertThat(slice.hasNext()).isFalse();
+        assertThat(page.getContent().size()).isEqualTo(2);
+        assertThat(page.getTotalElements()).isEqualTo(5);   // 마지막 페이지라 count 없이 계산된다
+    }
+
+    @Test
+    public void cursorPaging() throws Exception {
+        // given
+        for (int i = 1; i <= 5; i++) {
+            memberRepository.save(Member.builder().username("member" + i).age(10).build());
+        }
+        memberRepository.save(Member.builder().username("member3").age(20).build());
+        PageRequest pageRequest = PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "username"));
+
+        // when
+        CursorPage<Member> page1 = memberRepository.findAllByCursor(null, pageRequest);
+        CursorPage<Member> page2 = memberRepository.findAllByCursor(page1.getNextCursor(), pageRequest);
+        CursorPage<Member> page3 = memberRepository.findAllByCursor(page2.getNextCursor(), pageRequest);
+
+        // then
+        assertThat(page1.getContent()).extracting("username").containsExactly("member1", "member2");
+        assertThat(page2.getContent()).extracting("username").containsExactly("member3", "member3");
+        assertThat(page2.getContent()).extracting("age").containsExactly(10, 20);   // 같은 username 은 id 순서
+        assertThat(page3.getContent()).extracting("username").containsExactly("member4", "member5");
+        assertThat(page1.isHasNext()).isTrue();
+    }
+
     @Test
     public void bulkUpdate() throws Exception {
         // given
@@ -238,6 +290,47 @@ class MemberRepositoryTest {
         assertThat(resultCount).isEqualTo(4);
     }
 
+    @Test
+    public void saveAllBatched() throws Exception {
+        // given
+        List<Member> members = new ArrayList<>();
+        for (int i = 1; i <= 250; i++) {
+            members.add(Member.builder().username("member" + i).age(i).build());
+        }
+
+        long before = memberRepository.count();
+
+        // when
+        long saved = memberRepository.saveAllBatched(members);
+
+        // then
+        assertThat(saved).isEqualTo(250);
+        assertThat(entityManager.contains(members.get(0))).isFalse();  // batch 마다 clear 된다
+        assertThat(memberRepository.count()).isEqualTo(before + 250);
+    }
+
+    @Test
+    public void streamMemberDto() throws Exception {
+        // given
+        Team team = teamRepository.save(Team.builder().name("exportTeam").build());
+        for (int i = 1; i <= 50; i++) {
+            memberRepository.save(Member.builder().username("member" + i).age(i).team(team).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        long count;
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto()) {
+            count = stream.filter(dto -> "exportTeam".equals(dto.getTeamName())).count();
+        }
+
+        // then
+        assertThat(count).isEqualTo(50);
+        // DTO 로 흘려보내서 영속성 컨텍스트에는 아무것도 남지 않는다
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
     @Test
     public void findMemberLazy() throws Exception {
         //given
@@ -269,6 +362,30 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    @MaxQueries(2)
+    public void pagedDtoWithoutNPlusOne(SqlCount sqlCount) throws Exception {
+        // given
+        for (int i = 1; i <= 5; i++) {
+            Team team = teamRepository.save(Team.builder().name("team" + i).build());
+            memberRepository.save(Member.builder().username("member" + i).age(i).team(team).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        sqlCount.reset();
+
+        // when
+        Page<MemberDto> page = memberRepository
+                .findAllWithCachedCount(PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "id")))
+                .map(MemberDto::new);
+
+        // then
+        // 팀을 페치 조인하므로 회원마다 팀 조회가 나가지 않는다. (페이지 + count)
+        assertThat(page.getContent()).extracting("teamName")
+                .containsExactly("team5", "team4", "team3", "team2", "team1");
+        assertThat(sqlCount.getTotal()).isLessThanOrEqualTo(2);
+    }
+
     @Test
     public void queryHint() throws Exception {
         Member member1 = memberRepository.save(Member.builder().username("member1").age(10).build());
@@ -318,4 +435,70 @@ class MemberRepositoryTest {
         // then
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void projectionWithoutPersistenceContext() throws Exception {
+        // given
+        Team team = teamRepository.save(Team.builder().name("projectionTeam").build());
+        Member member = memberRepository.save(new Member("projection", 9000, team));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        Optional<String> username = memberRepository.findUsernameById(member.getId());
+        Optional<MemberSummary> summary = memberRepository.findSummaryById(member.getId());
+        Optional<MemberDto> dto = memberRepository.findDtoById(member.getId());
+
+        // then
+        assertThat(username).contains("projection");
+        assertThat(summary.get().getAge()).isEqualTo(9000);
+        assertThat(dto.get().getTeamName()).isEqualTo("projectionTeam");
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+        assertThat(memberRepository.findUsernameById(-1L)).isEmpty();
+    }
+
+    @Test
+    public void memberDtoReadPaths() throws Exception {
+        // given
+        Team team = teamRepository.save(Team.builder().name("readPathTeam").build());
+        memberRepository.save(new Member("readPath1", 9100, team));
+        memberRepository.save(new Member("readPath2", 9100, null));
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "id"));
+
+        // when : JDBC 경로는 flush 하지 않은 변경도 보여야 한다
+        List<MemberDto> jdbc = memberRepository.findMemberDto(MemberReadPath.JDBC);
+        List<MemberDto> jpql = memberRepository.findMemberDto(MemberReadPath.JPQL);
+        Page<MemberDto> jdbcPage = memberRepository.findMemberDtoPage(pageRequest, MemberReadPath.JDBC);
+        Page<MemberDto> jpqlPage = memberRepository.findMemberDtoPage(pageRequest, MemberReadPath.JPQL);
+
+        // then
+        assertThat(jdbc).containsExactlyInAnyOrderElementsOf(jpql);
+        assertThat(jdbc).extracting("username").contains("readPath1").doesNotContain("readPath2");
+        assertThat(jdbcPage.getContent()).containsExactlyElementsOf(jpqlPage.getContent());
+        assertThat(jdbcPage.getContent().get(0).getUsername()).isEqualTo("readPath2");
+        assertThat(jdbcPage.getTotalElements()).isEqualTo(jpqlPage.getTotalElements());
+    }
+
+    @Test
+    public void memberDtoPageSorts() throws Exception {
+        // given
+        memberRepository.save(new Member("readPathSort1", 9100, teamRepository.save(Team.builder().name("readPathSortB").build())));
+        memberRepository.save(new Member("readPathSort2", 9100, teamRepository.save(Team.builder().name("readPathSortA").build())));
+
+        // when : 팀 이름, 감사 컬럼은 JDBC 로, 그 밖의 속성(version)은 JPQL 로 처리한다
+        PageRequest byTeamName = PageRequest.of(0, 1000, Sort.by(Sort.Direction.DESC, "team.name"));
+        Page<MemberDto> jdbcByTeamName = memberRepository.findMemberDtoPage(byTeamName, MemberReadPath.JDBC);
+        Page<MemberDto> byCreatedDate = memberRepository.findMemberDtoPage(
+                PageRequest.of(0, 2, Sort.by("createdDate", "lastModifiedDate", "id")), MemberReadPath.JDBC);
+        Page<MemberDto> byVersion = memberRepository.findMemberDtoPage(PageRequest.of(0, 2, Sort.by("version")), MemberReadPath.JDBC);
+
+        // then
+        assertThat(MemberDtoJdbcRepository.supports(byTeamName.getSort())).isTrue();
+        assertThat(MemberDtoJdbcRepository.supports(Sort.by("version"))).isFalse();
+        assertThat(jdbcByTeamName.getContent()).extracting("teamName")
+                .filteredOn(name -> name != null && ((String) name).startsWith("readPathSort"))
+                .containsExactly("readPathSortB", "readPathSortA");
+        assertThat(byCreatedDate.getContent()).hasSize(2);
+        assertThat(byVersion.getContent()).hasSize(2);
+    }
+}
@@ -0,0 +1,154 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.sql.SqlCount;
+import study.datajpa.sql.SqlStatementCounter;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 리포지토리 쿼리 실행 계획 회귀 테스트 (H2 EXPLAIN)
+ * 쿼리를 실제로 실행해서 하이버네이트가 만든 SQL 을 잡고, 그 SQL 의 EXPLAIN 에서 member 테이블을 어떻게 읽는지 본다.
+ * 자주 쓰는 쿼리(HOT)가 인덱스 조건 없이 전체를 읽으면(tableScan 또는 조건 없는 인덱스 스캔) 실패한다.
+ * username 캐시는 DB 를 거치지 않게 하므로 끈다.
+ */
+@SpringBootTest(properties = "datajpa.username-cache.enabled=false")
+@Transactional
+class QueryPlanTest {
+
+    // EXPLAIN 결과의 테이블 읽기 : FROM "PUBLIC"."MEMBER" "M" /* PUBLIC.IDX_MEMBER_AGE: AGE >= ?1 */
+    private static final Pattern TABLE_ACCESS =
+            Pattern.compile("\"?PUBLIC\"?\\.\"?(\\w+)\"?\\s+(?:\"?\\w+\"?\\s+)?/\\*([^*]*)\\*/");
+    // member 테이블을 읽거나 고치는 SQL
+    private static final Pattern MEMBER_TABLE = Pattern.compile("(?i)\\b(?:from|join|update)\\s+member\\b");
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired SqlStatementCounter sqlStatementCounter;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void hotQueriesUseIndex() throws Exception {
+        Map<String, Runnable> hot = new LinkedHashMap<>();
+        hot.put("findByUsername", () -> memberRepository.findByUsername("user1"));
+        hot.put("findListByUsername", () -> memberRepository.findListByUsername("user1"));
+        hot.put("findOptionalByUsername", () -> memberRepository.findOptionalByUsername("user1"));
+        hot.put("findEntityGraphByUsername", () -> memberRepository.findEntityGraphByUsername("user1"));
+        hot.put("findReadOnlyByUsername", () -> memberRepository.findReadOnlyByUsername("user1"));
+        hot.put("findLockByUsername", () -> memberRepository.findLockByUsername("user1"));
+        hot.put("findByUsernameAndAgeGreaterThan", () -> memberRepository.findByUsernameAndAgeGreaterThan("user1", 0));
+        hot.put("findUser", () -> memberRepository.findUser("user1", 1));
+        hot.put("findByNames", () -> memberRepository.findByNames(List.of("user1", "user2", "user3")));
+        hot.put("findByAge", () -> memberRepository.findByAge(10, PageRequest.of(0, 3, Sort.by("username"))));
+        hot.put("findSliceByAge", () -> memberRepository.findSliceByAge(10, PageRequest.of(0, 3)));
+        hot.put("findByAgeWithCachedCount", () -> memberRepository.findByAgeWithCachedCount(10, PageRequest.of(0, 3)));
+        hot.put("findUsernameById", () -> memberRepository.findUsernameById(1L));
+        hot.put("findDtoById", () -> memberRepository.findDtoById(1L));
+        hot.put("bulkAgePlus", () -> memberRepository.bulkAgePlus(10000));
+        hot.put("bulkAgePlusInRange", () -> memberRepository.bulkAgePlusInRange(10000, 0, 100));
+        hot.put("MemberJpaRepository.findByUsername", () -> memberJpaRepository.findByUsername("user1"));
+        hot.put("MemberJpaRepository.findByUsernameAndAgeGreaterThan", () -> memberJpaRepository.findByUsernameAndAgeGreaterThan("user1", 0));
+        hot.put("MemberJpaRepository.findByPage", () -> memberJpaRepository.findByPage(10, 0, 3));
+        hot.put("MemberJpaRepository.bulkAgePlus", () -> memberJpaRepository.bulkAgePlus(10000));
+        hot.put("findRoster", () -> teamRepository.findRoster(PageRequest.of(0, 10, Sort.by("id")), 3));
+
+        List<String> fullScans = new ArrayList<>();
+        hot.forEach((name, query) -> {
+            Set<String> statements = capture(query);
+            assertThat(statements).as(name).isNotEmpty();
+            for (String sql : statements) {
+                String plan = explain(sql);
+                List<String> conditions = accessConditions(plan, "MEMBER");
+                // member 를 읽는 SQL 인데 접근 경로를 못 찾으면 계획 형식이 바뀐 것 (검사가 그냥 통과하지 않도록)
+                if (MEMBER_TABLE.matcher(sql).find()) {
+                    assertThat(conditions).as(name + "\n" + plan).isNotEmpty();
+                }
+                if (conditions.stream().anyMatch(condition -> !condition.contains(":"))) {
+                    fullScans.add(name + "\n" + plan);
+                }
+            }
+        });
+
+        assertThat(fullScans).as("인덱스 없이 member 를 전부 읽는 쿼리").isEmpty();
+    }
+
+    // 전체 조회 쿼리는 다 읽는 게 맞으므로 계획이 나오는지만 본다
+    @Test
+    public void otherQueriesExplain() throws Exception {
+        Map<String, Runnable> others = new LinkedHashMap<>();
+        others.put("findAll", () -> memberRepository.findAll());
+        others.put("findUsernameList", () -> memberRepository.findUsernameList());
+        others.put("findMemberDto", () -> memberRepository.findMemberDto());
+        others.put("findSliceBy", () -> memberRepository.findSliceBy(PageRequest.of(0, 3)));
+        others.put("findMemberFetchJoin", () -> memberRepository.findMemberFetchJoin());
+        others.put("findByMembersEntityGraph", () -> memberRepository.findByMembersEntityGraph());
+        others.put("findMinId", () -> memberRepository.findMinId());
+        others.put("findMaxId", () -> memberRepository.findMaxId());
+        others.put("findMemberCustom", () -> memberRepository.findMemberCustom());
+        others.put("findAllWithCachedCount", () -> memberRepository.findAllWithCachedCount(PageRequest.of(0, 3)));
+        others.put("findMemberDtoPage", () -> memberRepository.findMemberDtoPage(PageRequest.of(0, 3), MemberReadPath.JPQL));
+        others.put("MemberJpaRepository.findMemberFetchJoin", () -> memberJpaRepository.findMemberFetchJoin());
+
+        others.forEach((name, query) -> {
+            Set<String> statements = capture(query);
+            assertThat(statements).as(name).isNotEmpty();
+            statements.forEach(sql -> assertThat(explain(sql)).as(name).isNotBlank());
+        });
+    }
+
+    private Set<String> capture(Runnable query) {
+        SqlCount count = sqlStatementCounter.start();
+        try {
+            query.run();
+        } finally {
+            sqlStatementCounter.stop();
+        }
+        return count.getStatements().keySet();
+    }
+
+    // 실행하지 않고 계획만 보므로 파라미터는 모두 null
+    private String explain(String sql) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("explain " + sql);
+            int parameters = ps.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                ps.setObject(i, null);
+            }
+            return ps;
+        }, rs -> {
+            StringBuilder plan = new StringBuilder();
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+            return plan.toString();
+        });
+    }
+
+    // table 을 읽는 곳마다 /* ... */ 안의 접근 경로. 인덱스 조건(": ...")이 없으면 tableScan 이든 인덱스든 전체를 읽는 것
+    private static List<String> accessConditions(String plan, String table) {
+        List<String> conditions = new ArrayList<>();
+        Matcher matcher = TABLE_ACCESS.matcher(plan);
+        while (matcher.find()) {
+            if (table.equalsIgnoreCase(matcher.group(1))) {
+                conditions.add(matcher.group(2));
+            }
+        }
+        return conditions;
+    }
+}
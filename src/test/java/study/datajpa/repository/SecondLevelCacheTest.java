@@ -0,0 +1,66 @@
+package study.datajpa.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 2차 캐시는 커밋 이후에 채워지므로 테스트 트랜잭션(@Transactional) 없이 확인한다.
+@SpringBootTest
+@ActiveProfiles("l2cache")
+class SecondLevelCacheTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired EntityManagerFactory emf;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    private Long memberId;
+
+    @AfterEach
+    void cleanUp() {
+        if (memberId != null) {
+            memberRepository.deleteById(memberId);
+        }
+    }
+
+    @Test
+    public void findByIdHitsCache() throws Exception {
+        // given
+        memberId = memberRepository.save(Member.builder().username("cached").age(2000).build()).getId();
+        memberRepository.findById(memberId);    // 캐시에 담긴다
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        Member member = memberRepository.findById(memberId).get();
+
+        // then
+        assertThat(member.getUsername()).isEqualTo("cached");
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    public void bulkUpdateEvictsRegion() throws Exception {
+        // given
+        memberId = memberRepository.save(Member.builder().username("cached").age(2000).build()).getId();
+        memberRepository.findById(memberId);
+
+        // when
+        // JPQL 벌크 연산은 영속성 컨텍스트를 거치지 않지만 하이버네이트가 해당 엔티티 리전을 비운다.
+        transactionTemplate.executeWithoutResult(status -> memberRepository.bulkAgePlus(2000));
+        Member member = memberRepository.findById(memberId).get();
+
+        // then
+        assertThat(member.getAge()).isEqualTo(2001);
+    }
+}
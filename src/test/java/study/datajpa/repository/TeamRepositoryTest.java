@@ -0,0 +1,98 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.TeamRosterDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.sql.SqlCount;
+import study.datajpa.support.SqlBudgetExtension;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+@ExtendWith(SqlBudgetExtension.class)
+class TeamRepositoryTest {
+
+    @Autowired TeamRepository teamRepository;
+    @Autowired TeamJpaRepository teamJpaRepository;
+    @Autowired MemberRepository memberRepository;
+    @PersistenceContext EntityManager em;
+
+    @Test
+    public void roster(SqlCount sqlCount) throws Exception {
+        // given
+        Team teamA = teamRepository.save(Team.builder().name("rosterA").build());
+        Team teamB = teamRepository.save(Team.builder().name("rosterB").build());
+        for (int i = 0; i < 5; i++) {
+            memberRepository.save(Member.builder().username("a" + i).age(i).team(teamA).build());
+        }
+        memberRepository.save(Member.builder().username("b0").age(0).team(teamB).build());
+        em.flush();
+        em.clear();
+        sqlCount.reset();
+
+        // when
+        Map<Long, TeamRosterDto> rosters = findRosters(sqlCount, teamA.getId(), teamB.getId());
+
+        // then
+        TeamRosterDto rosterA = rosters.get(teamA.getId());
+        TeamRosterDto rosterB = rosters.get(teamB.getId());
+        assertThat(rosterA.getMemberCount()).isEqualTo(5);
+        assertThat(rosterA.getMembers()).extracting("username").containsExactly("a0", "a1", "a2");
+        assertThat(rosterB.getMembers()).extracting("teamName").containsExactly("rosterB");
+    }
+
+    // 공유 DB 에 다른 팀이 남아 있을 수 있으므로 찾는 팀이 모두 나올 때까지 페이지를 넘긴다
+    private Map<Long, TeamRosterDto> findRosters(SqlCount sqlCount, Long... teamIds) {
+        Map<Long, TeamRosterDto> found = new HashMap<>();
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id"));
+        while (true) {
+            sqlCount.reset();
+            Page<TeamRosterDto> page = teamRepository.findRoster(pageable, 3);
+            assertThat(sqlCount.getTotal()).isLessThanOrEqualTo(4);   // 페이지마다 팀, 인원수, 회원, (count)
+
+            for (TeamRosterDto roster : page.getContent()) {
+                found.put(roster.getId(), roster);
+            }
+            if (found.keySet().containsAll(List.of(teamIds))) {
+                return found;
+            }
+            assertThat(page.hasNext()).as("팀 %s 를 찾지 못했습니다.", List.of(teamIds)).isTrue();
+            pageable = page.nextPageable();
+        }
+    }
+
+    @Test
+    public void batchFetchMembers(SqlCount sqlCount) throws Exception {
+        // given
+        for (int t = 0; t < 5; t++) {
+            Team team = teamRepository.save(Team.builder().name("batch" + t).build());
+            memberRepository.save(Member.builder().username("member" + t).age(t).team(team).build());
+        }
+        em.flush();
+        em.clear();
+        sqlCount.reset();
+
+        // when
+        List<Team> teams = teamJpaRepository.findPage(0, 100);
+        teams.forEach(team -> team.getMembers().size());
+
+        // then
+        assertThat(sqlCount.getTotal()).isEqualTo(2);   // 팀 + members in 절 한 번
+    }
+}
@@ -0,0 +1,72 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 구간마다 커밋되는지 확인해야 해서 테스트 트랜잭션을 쓰지 않는다.
+@SpringBootTest(properties = "datajpa.chunked-update.batch-size=10")
+class MemberAgeChunkUpdaterTest {
+
+    @Autowired MemberAgeChunkUpdater memberAgeChunkUpdater;
+    @Autowired MemberRepository memberRepository;
+
+    private final List<Member> members = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAll(members);
+    }
+
+    @Test
+    public void bulkAgePlusInChunks() throws Exception {
+        // given
+        for (int i = 0; i < 25; i++) {
+            members.add(memberRepository.save(Member.builder().username("chunk" + i).age(3000).build()));
+        }
+        List<ChunkProgress> progresses = new ArrayList<>();
+        // 공유 DB 에 남아 있는 다른 회원(age >= 3000)은 세지 않도록 이 테스트 회원 바로 앞부터 시작한다
+        Long resumeAfterId = members.get(0).getId() - 1;
+
+        // when
+        ChunkProgress result = memberAgeChunkUpdater.bulkAgePlus(3000, resumeAfterId, progresses::add);
+
+        // then
+        assertThat(result.isDone()).isTrue();
+        assertThat(result.getUpdated()).isEqualTo(25);
+        assertThat(progresses.size()).isGreaterThanOrEqualTo(3);
+        assertThat(memberRepository.findAllById(ids())).extracting("age").containsOnly(3001);
+    }
+
+    @Test
+    public void resumeAfterCompletedId() throws Exception {
+        // given
+        for (int i = 0; i < 25; i++) {
+            members.add(memberRepository.save(Member.builder().username("chunk" + i).age(3000).build()));
+        }
+        Long resumeAfterId = members.get(9).getId();   // 앞의 10명은 이미 처리되었다고 가정
+
+        // when
+        ChunkProgress result = memberAgeChunkUpdater.bulkAgePlus(3000, resumeAfterId, progress -> { });
+
+        // then
+        assertThat(result.getUpdated()).isEqualTo(15);
+        assertThat(memberRepository.findAllById(ids()))
+                .filteredOn(member -> member.getId() <= resumeAfterId)
+                .extracting("age").containsOnly(3000);
+    }
+
+    private List<Long> ids() {
+        List<Long> ids = new ArrayList<>();
+        members.forEach(member -> ids.add(member.getId()));
+        return ids;
+    }
+}
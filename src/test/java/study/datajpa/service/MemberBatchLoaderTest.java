@@ -0,0 +1,68 @@
+package study.datajpa.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "datajpa.batch-loader.window=20ms")
+class MemberBatchLoaderTest {
+
+    @Autowired MemberBatchLoader memberBatchLoader;
+    @Autowired MemberRepository memberRepository;
+    @Autowired MeterRegistry meterRegistry;
+
+    private final List<Member> members = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAll(members);
+    }
+
+    @Test
+    public void concurrentLoadsShareQueries() throws Exception {
+        // given
+        int threads = 32;
+        for (int i = 0; i < threads; i++) {
+            members.add(memberRepository.save(Member.builder().username("loader" + i).age(i).build()));
+        }
+        double queriesBefore = meterRegistry.get("member.loader.queries").counter().count();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<Member>>> results = new ArrayList<>();
+
+        // when
+        for (Member member : members) {
+            results.add(executor.submit(() -> {
+                start.await();
+                CompletableFuture<Optional<Member>> future = memberBatchLoader.load(member.getId());
+                return future.join();
+            }));
+        }
+        start.countDown();
+
+        // then
+        for (int i = 0; i < threads; i++) {
+            assertThat(results.get(i).get().get().getUsername()).isEqualTo(members.get(i).getUsername());
+        }
+        double queries = meterRegistry.get("member.loader.queries").counter().count() - queriesBefore;
+        assertThat(queries).isLessThan(threads);
+        assertThat(memberBatchLoader.load(-1L).join()).isEmpty();
+        executor.shutdown();
+    }
+}
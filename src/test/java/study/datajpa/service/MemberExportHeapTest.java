@@ -0,0 +1,72 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 작은 힙에서 큰 NDJSON 내보내기가 끝까지 도는지 확인한다. (./gradlew heapTest, 힙 128m)
+ * 결과를 한 번에 메모리에 올리면 OutOfMemoryError 로 실패한다.
+ * 인메모리 DB 는 데이터 자체가 힙에 올라가므로 임시 디렉터리의 파일 DB 를 쓴다.
+ * 일반 test 태스크에서는 제외된다.
+ */
+@Tag("heap")
+@SpringBootTest(properties = {"datajpa.seed.mode=none", "datajpa.username-cache.enabled=false"})
+class MemberExportHeapTest {
+
+    static final int MEMBERS = 1_000_000;
+
+    @Autowired MemberExportService memberExportService;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void dataSource(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("export-heap");
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + dir.resolve("datajpa") + ";CACHE_SIZE=8192");
+    }
+
+    @Test
+    public void exportUnderSmallHeap() throws Exception {
+        // given
+        jdbcTemplate.update("insert into member (member_id, username, age, version, created_date, last_modified_date)" +
+                " select x, 'member' || x, mod(x, 100), 0, now(), now() from system_range(1, ?)", MEMBERS);
+
+        // when
+        CountingOutputStream out = new CountingOutputStream();
+        long exported = memberExportService.exportNdjson(out);
+
+        // then
+        assertThat(exported).isEqualTo(MEMBERS);
+        assertThat(out.lines).isEqualTo(MEMBERS);
+    }
+
+    // 내용은 버리고 줄 수만 센다
+    static class CountingOutputStream extends OutputStream {
+        long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.cache.MemberTableVersion;
+import study.datajpa.dto.ImportResult;
+import study.datajpa.dto.MemberChangeDto;
+import study.datajpa.dto.MemberChanges;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberChangeJdbcRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// 가져오기는 chunk 마다 커밋하므로 테스트 트랜잭션을 쓰지 않는다
+@SpringBootTest(properties = {"datajpa.import.chunk-size=2", "datajpa.sync.settle-time=0ms"})
+class MemberImportServiceTest {
+
+    @Autowired MemberImportService memberImportService;
+    @Autowired MemberChangeJdbcRepository memberChangeJdbcRepository;
+    @Autowired MemberTableVersion memberTableVersion;
+    @Autowired TransactionTemplate transactionTemplate;
+    @PersistenceContext EntityManager em;
+
+    @TempDir Path dir;
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.age = 9500").executeUpdate();
+            em.createQuery("delete from Team t where t.name like 'importTeam%'").executeUpdate();
+        });
+    }
+
+    @Test
+    public void importTeamsAndMembers() throws Exception {
+        // given
+        Path teams = write("teams.csv", "name", "importTeamA", "importTeamB", "importTeamA");
+        Path members = write("members.csv", "username,age,teamName",
+                "import1,9500,importTeamA",
+                "import2,9500,importTeamB",
+                "import3,9500,importTeamC",     // 팀 파일에 없는 팀은 만든다
+                "import4,9500,");
+
+        // when
+        memberImportService.importTeams(teams, job());
+        ImportResult result = memberImportService.importMembers(members, job());
+
+        // then
+        assertThat(result.getRows()).isEqualTo(4);
+        assertThat(countTeams()).isEqualTo(3);
+        List<Member> imported = findImported();
+        assertThat(imported).extracting(Member::getUsername).containsExactly("import1", "import2", "import3", "import4");
+        assertThat(imported).extracting(member -> member.getTeam() == null ? null : member.getTeam().getName())
+                .containsExactly("importTeamA", "importTeamB", "importTeamC", null);
+        assertThat(imported).allSatisfy(member -> {
+            assertThat(member.getCreatedDate()).isNotNull();
+            assertThat(member.getLastModifiedDate()).isNotNull();
+            assertThat(member.getVersion()).isEqualTo(0L);
+        });
+    }
+
+    @Test
+    public void resumeFromCheckpoint() throws Exception {
+        // given : 6번째 줄이 깨진 파일 (chunk 2줄)
+        String job = job();
+        Path broken = write("members.csv", "username,age,teamName",
+                "import1,9500,", "import2,9500,", "import3,9500,", "import4,9500,", "import5,broken,", "import6,9500,");
+        assertThatThrownBy(() -> memberImportService.importMembers(broken, job))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("6번째 줄");
+        assertThat(findImported()).extracting(Member::getUsername).containsExactly("import1", "import2", "import3", "import4");
+
+        // when : 고친 파일을 같은 job 으로 다시 실행
+        Path fixed = write("members.csv", "username,age,teamName",
+                "import1,9500,", "import2,9500,", "import3,9500,", "import4,9500,", "import5,9500,", "import6,9500,");
+        ImportResult result = memberImportService.importMembers(fixed, job);
+
+        // then : 이미 넣은 줄은 건너뛴다
+        assertThat(result.getResumedAfterLine()).isEqualTo(5);
+        assertThat(result.getRows()).isEqualTo(2);
+        assertThat(findImported()).extracting(Member::getUsername)
+                .containsExactly("import1", "import2", "import3", "import4", "import5", "import6");
+    }
+
+    /**
+     * 첫 chunk 가 커밋된 뒤 다른 변경이 생기고, 클라이언트가 그 변경까지 동기화(cursor)한 다음에 나머지 chunk 가 커밋된다.
+     * 나머지 chunk 가 가져오기 시작 시각으로 찍히면 cursor 보다 이전이라 다음 동기화에서 빠진다.
+     * 파일 대신 FIFO 로 줄을 나눠 흘려 넣어서 chunk 사이에 끼어든다.
+     */
+    @Test
+    @Timeout(30)
+    @EnabledOnOs({OS.LINUX, OS.MAC})
+    public void laterChunksAreNewerThanSyncCursor() throws Exception {
+        // given
+        Path fifo = dir.resolve("members.fifo");
+        assumeTrue(new ProcessBuilder("mkfifo", fifo.toString()).start().waitFor() == 0, "mkfifo");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        String cursor;
+        try {
+            Future<ImportResult> importing = executor.submit(() -> memberImportService.importMembers(fifo, job()));
+            try (BufferedWriter writer = Files.newBufferedWriter(fifo, StandardCharsets.UTF_8)) {
+                writeLines(writer, "username,age,teamName", "import1,9500,", "import2,9500,");
+                awaitImported(2);
+
+                // when : chunk 사이에 다른 회원이 바뀌고 클라이언트가 거기까지 받아간다
+                Thread.sleep(5);
+                transactionTemplate.executeWithoutResult(status -> em.persist(Member.builder().username("import0").age(9500).build()));
+                Thread.sleep(5);
+                cursor = drain();
+                Thread.sleep(5);
+                writeLines(writer, "import3,9500,", "import4,9500,");
+            }
+            assertThat(importing.get(10, TimeUnit.SECONDS).getRows()).isEqualTo(4);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // then : 나머지 chunk 는 cursor 이후의 변경으로 나온다
+        MemberChanges changes = memberChangeJdbcRepository.findChanges(cursor, 1000);
+        assertThat(changes.getChanges()).extracting(MemberChangeDto::getUsername).contains("import3", "import4");
+    }
+
+    // 가져오기가 끝나기 전이라도 커밋된 chunk 는 ETag 에 반영된다
+    @Test
+    @Timeout(30)
+    @EnabledOnOs({OS.LINUX, OS.MAC})
+    public void etagChangesAfterEachChunk() throws Exception {
+        // given
+        Path fifo = dir.resolve("etag.fifo");
+        assumeTrue(new ProcessBuilder("mkfifo", fifo.toString()).start().waitFor() == 0, "mkfifo");
+        String etag = memberTableVersion.etag();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ImportResult> importing = executor.submit(() -> memberImportService.importMembers(fifo, job()));
+            try (BufferedWriter writer = Files.newBufferedWriter(fifo, StandardCharsets.UTF_8)) {
+                // when : 첫 chunk 만 보낸다
+                writeLines(writer, "username,age,teamName", "import1,9500,", "import2,9500,");
+
+                // then : 파일이 남아 있어도 ETag 가 바뀐다 (바뀌지 않으면 @Timeout 으로 실패)
+                while (memberTableVersion.etag().equals(etag)) {
+                    Thread.sleep(10);
+                }
+                assertThat(importing).isNotDone();
+                writeLines(writer, "import3,9500,");
+            }
+            assertThat(importing.get(10, TimeUnit.SECONDS).getRows()).isEqualTo(3);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void writeLines(BufferedWriter writer, String... lines) throws IOException {
+        for (String line : lines) {
+            writer.write(line);
+            writer.newLine();
+        }
+        writer.flush();
+    }
+
+    private void awaitImported(int rows) throws InterruptedException {
+        while (findImported().size() < rows) {
+            Thread.sleep(10);
+        }
+    }
+
+    private String drain() {
+        String cursor = null;
+        MemberChanges page;
+        do {
+            page = memberChangeJdbcRepository.findChanges(cursor, 1000);
+            cursor = page.getCursor();
+        } while (page.isHasMore());
+        return cursor;
+    }
+
+    private Path write(String name, String... lines) throws Exception {
+        return Files.write(dir.resolve(name), List.of(lines), StandardCharsets.UTF_8);
+    }
+
+    private static String job() {
+        return "test-" + UUID.randomUUID();
+    }
+
+    private List<Member> findImported() {
+        return transactionTemplate.execute(status ->
+                em.createQuery("select m from Member m left join fetch m.team where m.age = 9500 order by m.username", Member.class)
+                        .getResultList());
+    }
+
+    private long countTeams() {
+        return em.createQuery("select count(t) from Team t where t.name like 'importTeam%'", Long.class)
+                .getSingleResult();
+    }
+}
@@ -0,0 +1,35 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "datajpa.seed.mode=csv")
+class MemberSeedLoaderTest {
+
+    @Autowired MemberSeedLoader memberSeedLoader;
+    @Autowired MemberRepository memberRepository;
+
+    @Test
+    public void seedFromCsv() throws Exception {
+        // when : 기동 후 별도 스레드에서 적재된다
+        int seeded = memberSeedLoader.getSeeded().get(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(seeded).isEqualTo(100);
+        List<Member> user50 = memberRepository.findByUsername("user50");
+        assertThat(user50).extracting("age").containsExactly(50);
+
+        // JPA 로 저장하는 회원과 id 가 겹치지 않는다
+        Member saved = memberRepository.save(Member.builder().username("afterSeed").age(5000).build());
+        assertThat(memberRepository.findByUsername("afterSeed")).extracting("id").containsExactly(saved.getId());
+        memberRepository.delete(saved);
+    }
+}
@@ -0,0 +1,128 @@
+package study.datajpa.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 시도마다 커밋해야 충돌이 나므로 테스트 트랜잭션을 쓰지 않는다.
+@SpringBootTest(properties = {"datajpa.optimistic.max-attempts=3", "datajpa.optimistic.initial-backoff=1ms"})
+class OptimisticUpdaterTest {
+
+    @Autowired OptimisticUpdater optimisticUpdater;
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MeterRegistry meterRegistry;
+
+    private Long memberId;
+
+    @AfterEach
+    void cleanUp() {
+        if (memberId != null) {     // given 에서 실패하면 id 가 없다
+            memberRepository.deleteById(memberId);
+        }
+    }
+
+    @Test
+    public void versionIncreasesOnUpdate() throws Exception {
+        memberId = memberRepository.save(Member.builder().username("optimistic").age(4000).build()).getId();
+        Long before = memberRepository.findById(memberId).get().getVersion();
+
+        Member updated = optimisticUpdater.updateMember(memberId, member -> member.changeName("optimistic2"));
+
+        assertThat(updated.getVersion()).isEqualTo(before + 1);
+        assertThat(memberRepository.findById(memberId).get().getUsername()).isEqualTo("optimistic2");
+    }
+
+    @Test
+    public void retryOnConflict() throws Exception {
+        // given
+        memberId = memberRepository.save(Member.builder().username("optimistic").age(4000).build()).getId();
+        double conflicts = count("optimistic.conflicts");
+        double retries = count("optimistic.retries");
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when : 첫 시도 중에 다른 트랜잭션이 먼저 커밋한다
+        optimisticUpdater.updateMember(memberId, member -> {
+            if (attempts.incrementAndGet() == 1) {
+                concurrentRename("other");
+            }
+            member.changeName(member.getUsername() + "+mine");
+        });
+
+        // then : 다시 읽은 최신 상태 위에 적용된다 (lost update 없음)
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(memberRepository.findById(memberId).get().getUsername()).isEqualTo("other+mine");
+        assertThat(count("optimistic.conflicts")).isEqualTo(conflicts + 1);
+        assertThat(count("optimistic.retries")).isEqualTo(retries + 1);
+    }
+
+    @Test
+    public void conflictWithBulkUpdate() throws Exception {
+        // given
+        memberId = memberRepository.save(Member.builder().username("optimistic").age(4000).build()).getId();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when : 첫 시도 중에 벌크 수정이 먼저 커밋한다
+        optimisticUpdater.updateMember(memberId, member -> {
+            if (attempts.incrementAndGet() == 1) {
+                concurrentBulkAgePlus();
+            }
+            member.changeName("mine");
+        });
+
+        // then : 벌크 수정도 버전을 올리므로 충돌로 잡히고, 다시 읽은 상태 위에 적용된다
+        Member member = memberRepository.findById(memberId).get();
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(member.getAge()).isEqualTo(4001);
+        assertThat(member.getUsername()).isEqualTo("mine");
+    }
+
+    @Test
+    public void giveUpAfterMaxAttempts() throws Exception {
+        // given
+        memberId = memberRepository.save(Member.builder().username("optimistic").age(4000).build()).getId();
+        double giveUps = count("optimistic.giveups");
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when : 매 시도마다 충돌
+        assertThatThrownBy(() -> optimisticUpdater.updateMember(memberId, member -> {
+            concurrentRename("other" + attempts.incrementAndGet());
+            member.changeName("mine");
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        // then
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(count("optimistic.giveups")).isEqualTo(giveUps + 1);
+        assertThat(memberRepository.findById(memberId).get().getUsername()).isEqualTo("other3");
+    }
+
+    private void concurrentRename(String username) {
+        TransactionTemplate other = new TransactionTemplate(transactionManager);
+        other.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        other.executeWithoutResult(status -> memberRepository.findById(memberId).get().changeName(username));
+    }
+
+    // 이 테스트 회원만 수정되도록 id 구간을 좁힌다
+    private void concurrentBulkAgePlus() {
+        TransactionTemplate other = new TransactionTemplate(transactionManager);
+        other.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        other.executeWithoutResult(status -> memberRepository.bulkAgePlusInRange(4000, memberId - 1, memberId));
+    }
+
+    private double count(String name) {
+        return meterRegistry.counter(name).count();
+    }
+}
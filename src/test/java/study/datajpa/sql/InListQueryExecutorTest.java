@@ -0,0 +1,100 @@
+package study.datajpa.sql;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {"datajpa.in-list.chunk-size=4", "datajpa.in-list.parallel-threshold=2"})
+class InListQueryExecutorTest {
+
+    @Autowired InListQueryExecutor inListQueryExecutor;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired EntityManager em;
+
+    private final List<Member> members = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAll(members);
+    }
+
+    @Test
+    public void chunksDistinctValues() throws Exception {
+        List<List<Integer>> chunks = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> values = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+        values.addAll(values);  // 중복은 한 번만 조회
+
+        List<Integer> result = transactionTemplate.execute(status -> inListQueryExecutor.query(values, chunk -> {
+            chunks.add(chunk);
+            return chunk;
+        }));
+
+        assertThat(chunks).extracting(List::size).containsExactly(4, 4, 2);
+        assertThat(result).containsExactlyElementsOf(IntStream.range(0, 10).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void parallelOutsideTransaction() throws Exception {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        List<Integer> values = IntStream.range(0, 16).boxed().collect(Collectors.toList());
+
+        List<Integer> result = inListQueryExecutor.query(values, chunk -> {
+            threads.add(Thread.currentThread().getName());
+            return chunk;
+        });
+
+        // chunk 순서대로 합쳐진다
+        assertThat(result).containsExactlyElementsOf(values);
+        assertThat(threads).allMatch(name -> name.startsWith("in-list-"));
+    }
+
+    @Test
+    public void findByNames() throws Exception {
+        // given
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            names.add("inList" + i);
+            members.add(memberRepository.save(Member.builder().username("inList" + i).age(7000).build()));
+        }
+
+        // when
+        List<Member> parallel = memberRepository.findByNames(names);
+        List<Member> inTransaction = transactionTemplate.execute(status -> {
+            List<Member> found = memberRepository.findByNames(names);
+            assertThat(found).allMatch(em::contains);     // 같은 트랜잭션이면 영속 상태
+            return found;
+        });
+
+        // then
+        assertThat(parallel).extracting("username").containsExactlyInAnyOrderElementsOf(names);
+        assertThat(inTransaction).extracting("username").containsExactlyInAnyOrderElementsOf(names);
+    }
+
+    @Test
+    public void rejectsNonPositiveSettings() throws Exception {
+        // chunk-size 가 0 이면 나누는 반복이 끝나지 않고, threads 가 0 이면 풀을 만들 수 없다
+        assertThatThrownBy(() -> new InListQueryExecutor(null, 0, 4, 4))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new InListQueryExecutor(null, -1, 4, 4))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new InListQueryExecutor(null, 512, 4, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,14 @@
+package study.datajpa.support;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// 테스트 하나에서 실행될 수 있는 SQL 수 (SqlBudgetExtension 이 검사)
+// 준비 단계의 SQL 을 빼려면 SqlCount 를 파라미터로 받아 reset() 한다.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MaxQueries {
+    int value();
+}
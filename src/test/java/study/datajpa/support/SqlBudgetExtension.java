@@ -0,0 +1,46 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import study.datajpa.sql.SqlCount;
+import study.datajpa.sql.SqlStatementCounter;
+
+/**
+ * 테스트마다 실행된 SQL 을 센다.
+ * - @MaxQueries(K) 가 붙은 테스트는 K 건을 넘으면 실패한다.
+ * - SqlCount 를 테스트 메서드 파라미터로 받아서 직접 검증할 수도 있다.
+ */
+public class SqlBudgetExtension implements BeforeEachCallback, AfterEachCallback, ParameterResolver {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        counter(context).start();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        SqlCount count = counter(context).stop();
+        MaxQueries maxQueries = context.getRequiredTestMethod().getAnnotation(MaxQueries.class);
+        if (maxQueries != null && count.getTotal() > maxQueries.value()) {
+            throw new AssertionError("SQL 이 " + maxQueries.value() + "건을 넘었습니다. " + count);
+        }
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == SqlCount.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return counter(extensionContext).current();
+    }
+
+    private SqlStatementCounter counter(ExtensionContext context) {
+        return SpringExtension.getApplicationContext(context).getBean(SqlStatementCounter.class);
+    }
+}